@@ -1,5 +1,8 @@
 package me.redplayer_1.towerdefense.Command;
 
+import me.redplayer_1.towerdefense.Plot.Layout.DisplayPool;
+import me.redplayer_1.towerdefense.Plot.Layout.GameLoop;
+import me.redplayer_1.towerdefense.Plot.Layout.LoadGovernor;
 import me.redplayer_1.towerdefense.Plot.Layout.Layout;
 import me.redplayer_1.towerdefense.Plot.Plot;
 import me.redplayer_1.towerdefense.TDPlayer;
@@ -22,15 +25,18 @@ import static me.redplayer_1.towerdefense.Util.MessageUtils.*;
  * Root command for locating and managing plots
  */
 public class PlotCommand extends Command {
-    private static final List<String> NORMAL_ARGS = List.of("help");
-    private static final List<String> PRIVILEGED_ARGS = List.of("help", "manage", "debug", "size", "resize", "origin", "setOrigin");
+    private static final List<String> NORMAL_ARGS = List.of("help", "invite", "uninvite");
+    private static final List<String> PRIVILEGED_ARGS = List.of("help", "invite", "uninvite", "manage", "debug", "loop", "size", "resize", "origin", "setOrigin");
     private static final String NORMAL_HELP_MSG =
             helpEntry("/plot", null, "teleport to your plot") + '\n'
             + helpEntry("/plot", "<player>", "teleport to a player's plot") + '\n'
+            + helpEntry("/plot invite", "<player>", "let a player see the enemies on your plot") + '\n'
+            + helpEntry("/plot uninvite", "<player>", "stop showing a player the enemies on your plot") + '\n'
             + helpEntry("/plot help", null, "show this help page");
     private static final String PRIVILEGED_HELP_MSG = NORMAL_HELP_MSG + '\n' +
             helpEntry("/plot manage", "<player>", "open plot management GUI for a player's plot") + '\n'
             + helpEntry("/plot debug", "<player>", "print debug information about a player's plot") + '\n'
+            + helpEntry("/plot loop", null, "show game loop statistics") + '\n'
             + helpEntry("/plot size", null, "get the current size of the plot grid") + '\n'
             + helpEntry("/plot resize", "<size>", "resize the plot grid") + '\n'
             + helpEntry("/plot origin", null, "get the origin of the plot grid") + '\n'
@@ -58,6 +64,31 @@ public class PlotCommand extends Command {
             return true;
         }
 
+        if (args[0].equalsIgnoreCase("invite") || args[0].equalsIgnoreCase("uninvite")) {
+            TDPlayer tdPlayer = TDPlayer.of(player);
+            if (tdPlayer == null) {
+                log(player, "You must have a plot to run this command!", LogLevel.ERROR);
+            } else if (args.length < 2) {
+                log(player, "Not enough args", LogLevel.ERROR);
+            } else {
+                Player targetPlayer = Bukkit.getPlayer(args[1]);
+                if (targetPlayer == null) {
+                    log(player, "Cannot find player \"" + args[1] + "\"", LogLevel.ERROR);
+                } else if (args[0].equalsIgnoreCase("invite")) {
+                    if (tdPlayer.getPlot().addVisitor(targetPlayer.getUniqueId())) {
+                        log(player, targetPlayer.getName() + " can now see the enemies on your plot", LogLevel.SUCCESS);
+                    } else {
+                        log(player, targetPlayer.getName() + " is already invited", LogLevel.WARN);
+                    }
+                } else if (tdPlayer.getPlot().removeVisitor(targetPlayer.getUniqueId())) {
+                    log(player, targetPlayer.getName() + " can no longer see the enemies on your plot", LogLevel.SUCCESS);
+                } else {
+                    log(player, targetPlayer.getName() + " isn't invited", LogLevel.WARN);
+                }
+            }
+            return true;
+        }
+
         if (TDPlayer.isPrivileged(player)) {
             // privileged/management commands
             switch (args[0].toLowerCase()) {
@@ -84,6 +115,16 @@ public class PlotCommand extends Command {
                         }
                     }
                 }
+                case "loop" -> log(player,
+                        GameLoop.getLayoutCount() + " running layouts, "
+                                + String.format("%.3f", GameLoop.getAverageTickNanos() / 1e6) + "ms avg, "
+                                + String.format("%.3f", GameLoop.getPeakTickNanos() / 1e6) + "ms peak, "
+                                + GameLoop.getDroppedSteps() + " dropped steps, "
+                                + GameLoop.getDeferredLayouts() + " deferred layout runs, "
+                                + GameLoop.getSpawnQueueLength() + " layouts waiting to spawn, "
+                                + DisplayPool.getTotalHits() + "/" + DisplayPool.getTotalMisses() + " display pool hits/misses, "
+                                + LoadGovernor.getLevel().name() + " quality at " + String.format("%.1f", LoadGovernor.getLastMspt()) + "mspt",
+                        LogLevel.SUCCESS);
                 case "size" -> log(player, String.valueOf(Plot.getPlotGridSize()), LogLevel.SUCCESS);
                 case "resize" -> {
                     if (args.length < 2) {
@@ -4,6 +4,8 @@ import me.redplayer_1.towerdefense.Conversation.ExclusiveConversationCanceller;
 import me.redplayer_1.towerdefense.Conversation.NumericPrompter;
 import me.redplayer_1.towerdefense.Conversation.StringConversationPrefix;
 import me.redplayer_1.towerdefense.Geometry.BlockMesh;
+import me.redplayer_1.towerdefense.Plot.Tower.EffectType;
+import me.redplayer_1.towerdefense.Plot.Tower.TargetingMode;
 import me.redplayer_1.towerdefense.Plot.Tower.TowerFactory;
 import me.redplayer_1.towerdefense.Plot.Tower.Towers;
 import me.redplayer_1.towerdefense.TowerDefense;
@@ -22,6 +24,8 @@ import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 /**
  * Starts a conversation with the player to get the tower's
  * <ul>
@@ -31,6 +35,9 @@ import org.jetbrains.annotations.Nullable;
  *     <li>cost</li>
  *     <li>attack cooldown</li>
  *     <li>targets</li>
+ *     <li>targeting mode</li>
+ *     <li>status effect (and its strength and duration)</li>
+ *     <li>particle</li>
  * </ul>
  */
 public class TowerConversation {
@@ -119,7 +126,65 @@ public class TowerConversation {
         }
     };
 
-    private final NumericPrompter targetPrompt = new NumericPrompter("Max Targets", (ctx, num) -> factory.setTargets(num), particlePrompt);
+    private final NumericPrompter effectDurationPrompt = new NumericPrompter(
+            "Effect Duration (simulation steps)",
+            (c, i) -> factory.setEffect((EffectType) c.getSessionData("effect"), (Integer) c.getSessionData("effectStrength"), i),
+            particlePrompt
+    );
+    private final NumericPrompter effectStrengthPrompt = new NumericPrompter(
+            "Effect Strength", (c, i) -> c.setSessionData("effectStrength", i), effectDurationPrompt
+    );
+
+    private final ValidatingPrompt effectPrompt = new ValidatingPrompt() {
+        @Override
+        protected boolean isInputValid(@NotNull ConversationContext context, @NotNull String input) {
+            try {
+                context.setSessionData("effect", EffectType.valueOf(input.toUpperCase()));
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        @Override
+        protected Prompt acceptValidatedInput(@NotNull ConversationContext context, @NotNull String input) {
+            if (context.getSessionData("effect") == EffectType.NONE) {
+                factory.setEffect(EffectType.NONE, 0, 0);
+                return particlePrompt;
+            }
+            return effectStrengthPrompt;
+        }
+
+        @Override
+        public @NotNull String getPromptText(@NotNull ConversationContext context) {
+            return "Status Effect " + Arrays.toString(EffectType.values());
+        }
+    };
+
+    private final ValidatingPrompt targetingPrompt = new ValidatingPrompt() {
+        @Override
+        protected boolean isInputValid(@NotNull ConversationContext context, @NotNull String input) {
+            try {
+                context.setSessionData("targeting", TargetingMode.valueOf(input.toUpperCase()));
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        @Override
+        protected Prompt acceptValidatedInput(@NotNull ConversationContext context, @NotNull String input) {
+            factory.setTargeting((TargetingMode) context.getSessionData("targeting"));
+            return effectPrompt;
+        }
+
+        @Override
+        public @NotNull String getPromptText(@NotNull ConversationContext context) {
+            return "Targeting " + Arrays.toString(TargetingMode.values());
+        }
+    };
+
+    private final NumericPrompter targetPrompt = new NumericPrompter("Max Targets", (ctx, num) -> factory.setTargets(num), targetingPrompt);
     private final NumericPrompter attackPrompt = new NumericPrompter("Attack Cooldown", (c, i) -> factory.setAttackDelay(i), targetPrompt);
     private final NumericPrompter costPrompt = new NumericPrompter("Cost", (c, i) -> factory.setCost(i), attackPrompt);
     private final NumericPrompter damagePrompt = new NumericPrompter("Damage", (c, i) -> factory.setDamage(i), costPrompt);
@@ -4,6 +4,7 @@ import me.redplayer_1.towerdefense.Exception.NoLayoutFoundException;
 import me.redplayer_1.towerdefense.Exception.NotEnoughPlotSpaceException;
 import me.redplayer_1.towerdefense.Geometry.MeshEditor;
 import me.redplayer_1.towerdefense.Plot.Layout.LayoutEditor;
+import me.redplayer_1.towerdefense.Util.FxChannel;
 import me.redplayer_1.towerdefense.Util.LogLevel;
 import me.redplayer_1.towerdefense.Util.MessageUtils;
 import net.kyori.adventure.text.Component;
@@ -47,6 +48,7 @@ public class EventListener implements Listener {
         if (meshEditor != null) {
             meshEditor.close(false);
         }
+        FxChannel.remove(p);
 
         // save player data
         TDPlayer tdPlayer = TDPlayer.of(p);
@@ -32,6 +32,28 @@ public enum Direction {
         };
     }
 
+    /**
+     * @return the change in the x-coordinate when moving one block in this direction
+     */
+    public int getModX() {
+        return switch (this) {
+            case EAST -> 1;
+            case WEST -> -1;
+            default -> 0;
+        };
+    }
+
+    /**
+     * @return the change in the z-coordinate when moving one block in this direction
+     */
+    public int getModZ() {
+        return switch (this) {
+            case NORTH -> -1;
+            case SOUTH -> 1;
+            default -> 0;
+        };
+    }
+
     /**
      * Returns the location <b><i>x</i></b> blocks in this direction
      * @param base the starting location
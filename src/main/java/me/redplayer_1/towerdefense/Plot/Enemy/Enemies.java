@@ -0,0 +1,88 @@
+package me.redplayer_1.towerdefense.Plot.Enemy;
+
+import me.redplayer_1.towerdefense.Util.LogLevel;
+import me.redplayer_1.towerdefense.Util.MessageUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedList;
+import java.util.Objects;
+
+public final class Enemies {
+    /** The archetype used when no other archetype is available (a stone slab that moves a tenth of a block per step) */
+    public static final EnemyArchetype DEFAULT = new EnemyArchetype(
+            "default", Material.SMOOTH_STONE_SLAB.createBlockData(), 1, .1, 1, 1
+    );
+    // archetype registry
+    private static final LinkedList<EnemyArchetype> archetypes = new LinkedList<>();
+
+    public static void add(EnemyArchetype archetype) {
+        archetypes.removeIf(a -> a.name.equals(archetype.name));
+        archetypes.add(archetype);
+    }
+
+    public static void remove(String name) {
+        archetypes.removeIf(a -> a.name.equals(name));
+    }
+
+    public static LinkedList<EnemyArchetype> getArchetypes() {
+        return archetypes;
+    }
+
+    /**
+     * @param name the name of the archetype
+     * @return the archetype (shared, not a copy) or null if it doesn't exist
+     */
+    public static @Nullable EnemyArchetype get(String name) {
+        for (EnemyArchetype archetype : archetypes) {
+            if (archetype.name.equals(name)) {
+                return archetype;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param name the name of the archetype
+     * @return the archetype, or the {@link #DEFAULT default} archetype if it doesn't exist
+     */
+    public static EnemyArchetype getOrDefault(String name) {
+        EnemyArchetype archetype = get(name);
+        return archetype != null ? archetype : DEFAULT;
+    }
+
+    /**
+     * Serialize all registered archetypes
+     * @param section the section to put the archetypes' data in
+     */
+    public static void serialize(ConfigurationSection section) {
+        for (EnemyArchetype archetype : archetypes) {
+            archetype.serialize(section);
+        }
+    }
+
+    /**
+     * Deserialize archetypes and load them into the registry
+     * @param section the section containing all the archetypes' data
+     */
+    public static void deserialize(ConfigurationSection section) {
+        for (String name : section.getKeys(false)) {
+            if (!section.isConfigurationSection(name)) continue;
+            try {
+                ConfigurationSection archetypeSec = Objects.requireNonNull(section.getConfigurationSection(name));
+                add(new EnemyArchetype(
+                        name,
+                        Bukkit.createBlockData(Objects.requireNonNull(archetypeSec.getString("block"))),
+                        archetypeSec.getDouble("scale", 1),
+                        archetypeSec.getDouble("speed", .1),
+                        archetypeSec.getDouble("healthMultiplier", 1),
+                        archetypeSec.getDouble("coinMultiplier", 1)
+                ));
+            } catch (NullPointerException | IllegalArgumentException e) {
+                MessageUtils.logConsole("Invalid configuration for enemy \"" + name + "\"", LogLevel.WARN);
+            }
+        }
+    }
+}
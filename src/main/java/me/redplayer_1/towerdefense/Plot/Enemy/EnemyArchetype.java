@@ -0,0 +1,88 @@
+package me.redplayer_1.towerdefense.Plot.Enemy;
+
+import me.redplayer_1.towerdefense.Plot.Layout.CompiledPath;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * The shared stats of a type of enemy. Every enemy of a type references the same archetype, so only its health and
+ * progress are stored per enemy.
+ */
+public final class EnemyArchetype {
+    public final String name;
+    private final BlockData block;
+    private final double scale;
+    private final int speed;
+    private final double healthMultiplier;
+    private final double coinMultiplier;
+
+    /**
+     * Creates a new archetype
+     * @param name the name of the archetype
+     * @param block the block shown by the enemy's display
+     * @param scale the size of the enemy's display (1 is a full block)
+     * @param speed the number of blocks the enemy moves every simulation step
+     * @param healthMultiplier multiplied by the wave's enemy health to get the enemy's health
+     * @param coinMultiplier multiplied by the wave's coin yield to get the coins given when the enemy is killed
+     */
+    public EnemyArchetype(String name, BlockData block, double scale, double speed, double healthMultiplier, double coinMultiplier) {
+        this.name = name;
+        this.block = block;
+        this.scale = scale;
+        this.speed = (int) Math.round(speed * CompiledPath.ONE);
+        this.healthMultiplier = healthMultiplier;
+        this.coinMultiplier = coinMultiplier;
+    }
+
+    /**
+     * @param waveHealth the wave's enemy health
+     * @return the health that an enemy of this archetype starts with (at least 1)
+     */
+    public int getHealth(int waveHealth) {
+        return Math.max(1, (int) Math.round(waveHealth * healthMultiplier));
+    }
+
+    /**
+     * @param waveCoinYield the wave's coin yield
+     * @return the number of coins given when an enemy of this archetype is killed
+     */
+    public int getCoinYield(int waveCoinYield) {
+        return (int) Math.round(waveCoinYield * coinMultiplier);
+    }
+
+    public BlockData getBlock() {
+        return block;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * @return the fixed-point distance that enemies of this archetype move every step
+     */
+    public int getSpeed() {
+        return speed;
+    }
+
+    public double getHealthMultiplier() {
+        return healthMultiplier;
+    }
+
+    public double getCoinMultiplier() {
+        return coinMultiplier;
+    }
+
+    /**
+     * Serializes the archetype into a new child section (with the archetype's name) of the root section
+     * @param rootSection the section to store the serialized data in
+     */
+    public void serialize(ConfigurationSection rootSection) {
+        ConfigurationSection section = rootSection.createSection(name);
+        section.set("block", block.getAsString());
+        section.set("scale", scale);
+        section.set("speed", (double) speed / CompiledPath.ONE);
+        section.set("healthMultiplier", healthMultiplier);
+        section.set("coinMultiplier", coinMultiplier);
+    }
+}
@@ -0,0 +1,66 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Plot.Tower.BeamCache;
+import me.redplayer_1.towerdefense.Plot.Tower.Tower;
+import me.redplayer_1.towerdefense.Util.FxChannel;
+
+import java.util.Arrays;
+
+/**
+ * Collects the attack beams of a layout's towers during a simulation step, so that towers can attack off the main
+ * thread and the beams' particles are {@link #spawn(FxChannel, int) spawned} on it afterward. A beam is recorded as
+ * the path cell and {@link BeamCache} bucket of its target, whose particle points the tower has cached.
+ */
+public class BeamBuffer {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Tower[] towers = new Tower[INITIAL_CAPACITY];
+    private int[] pathIndices = new int[INITIAL_CAPACITY];
+    private int[] buckets = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Records a beam
+     * @param tower the tower that the beam starts at
+     * @param pathIndex the path cell that the beam ends in
+     * @param bucket the bucket of the cell that the beam ends in
+     */
+    public void add(Tower tower, int pathIndex, int bucket) {
+        if (size == towers.length) {
+            towers = Arrays.copyOf(towers, size * 2);
+            pathIndices = Arrays.copyOf(pathIndices, size * 2);
+            buckets = Arrays.copyOf(buckets, size * 2);
+        }
+        towers[size] = tower;
+        pathIndices[size] = pathIndex;
+        buckets[size] = bucket;
+        size++;
+    }
+
+    /**
+     * Queues the particles of every recorded beam and clears the buffer. Must be called on the main thread.
+     * @param channel the channel of the player that the particles are shown to
+     * @param stride only every stride-th particle point of a beam is shown (1 for all of them)
+     */
+    public void spawn(FxChannel channel, int stride) {
+        for (int i = 0; i < size; i++) {
+            towers[i].spawnBeam(pathIndices[i], buckets[i], channel, stride);
+        }
+        clear();
+    }
+
+    /**
+     * Removes every recorded beam without spawning them
+     */
+    public void clear() {
+        Arrays.fill(towers, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * @return the number of recorded beams
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,214 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import io.papermc.paper.math.Position;
+import me.redplayer_1.towerdefense.Plot.Enemy.EnemyArchetype;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Shows enemies as fake blocks that only exist on the clients of the layout's {@link #setViewers(List) viewers}.
+ * Each path cell with enemies in it shows the block of the first enemy that entered it, and enemies move one cell
+ * at a time as they {@link #enterCell(int, int) enter cells} along the path. No entities are spawned, so nothing is
+ * tracked, saved with the chunk, or left behind if the server stops. Health isn't shown. The block changes of a
+ * flush are sent to each viewer at once, and cells that are no longer occupied are reset to their real block.
+ */
+public class BlockEnemyRenderer implements EnemyRenderer {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final World world;
+    private final CompiledPath path;
+    private final int y; // the block y-coordinate that the enemies move at
+    private final EnemyViewers viewers = new EnemyViewers(true);
+    private final Consumer<Player> onViewerAdded = player -> sendAll(player, true);
+    private final Consumer<Player> onViewerRemoved = player -> sendAll(player, false);
+    private final Cell[] cells; // by path index, created when first entered
+    private final ArrayList<Cell> changed = new ArrayList<>(); // cells whose block needs to be sent
+    private final HashMap<Position, BlockData> blockChanges = new HashMap<>(); // reused for every send
+    private int[] cellOf; // the path cell that each enemy is in, or -1 if it isn't shown
+    private EnemyArchetype[] archetype;
+
+    /**
+     * Creates a new renderer
+     * @param path the path that the enemies follow
+     * @param world the world that the enemies are in
+     * @param y the y-coordinate that the enemies move at
+     */
+    public BlockEnemyRenderer(CompiledPath path, World world, double y) {
+        this.world = world;
+        this.path = path;
+        this.y = (int) Math.floor(y);
+        cells = new Cell[path.getLength() >> CompiledPath.SHIFT];
+        cellOf = new int[INITIAL_CAPACITY];
+        Arrays.fill(cellOf, -1);
+        archetype = new EnemyArchetype[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void spawn(int slot, EnemyArchetype archetype, int pathIndex, double x, double y, double z, int health) {
+        if (slot >= cellOf.length) {
+            int oldCapacity = cellOf.length;
+            int capacity = Math.max(slot + 1, oldCapacity * 2);
+            cellOf = Arrays.copyOf(cellOf, capacity);
+            Arrays.fill(cellOf, oldCapacity, capacity, -1);
+            this.archetype = Arrays.copyOf(this.archetype, capacity);
+        }
+        this.archetype[slot] = archetype;
+        join(slot, pathIndex);
+    }
+
+    /**
+     * Moves the enemy to the cell it entered
+     */
+    @Override
+    public void enterCell(int slot, int pathIndex) {
+        if (slot >= cellOf.length || cellOf[slot] == -1 || cellOf[slot] == pathIndex) return;
+        leave(slot);
+        join(slot, pathIndex);
+    }
+
+    /**
+     * Does nothing, since enemies only move from cell to cell
+     */
+    @Override
+    public boolean move(int slot, double x, double y, double z, int durationTicks) {
+        return slot < cellOf.length && cellOf[slot] != -1;
+    }
+
+    @Override
+    public void showHealth(int slot, int health) { }
+
+    @Override
+    public void remove(int slot) {
+        if (slot >= cellOf.length || cellOf[slot] == -1) return;
+        leave(slot);
+        archetype[slot] = null;
+    }
+
+    @Override
+    public void clear() {
+        for (Cell cell : cells) {
+            if (cell != null && cell.count > 0) {
+                cell.count = 0;
+                markChanged(cell);
+            }
+        }
+        Arrays.fill(cellOf, -1);
+        Arrays.fill(archetype, null);
+    }
+
+    /**
+     * Resends every occupied cell
+     */
+    @Override
+    public void refresh() {
+        for (Cell cell : cells) {
+            if (cell != null && cell.count > 0) {
+                markChanged(cell);
+            }
+        }
+    }
+
+    /**
+     * Sends the cells that changed during the flush to every viewer
+     */
+    @Override
+    public void endFlush() {
+        if (changed.isEmpty()) return;
+        for (int i = 0; i < changed.size(); i++) {
+            Cell cell = changed.get(i);
+            cell.changed = false;
+            blockChanges.put(cell.position, cell.count > 0 ? cell.block : cell.realBlock);
+        }
+        changed.clear();
+        List<Player> players = viewers.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).sendMultiBlockChange(blockChanges);
+        }
+        blockChanges.clear();
+    }
+
+    /**
+     * Sends the occupied cells to players that became viewers and resets them for players that no longer are
+     */
+    @Override
+    public void setViewers(List<Player> viewers) {
+        this.viewers.update(viewers, onViewerAdded, onViewerRemoved);
+    }
+
+    /**
+     * Adds the enemy to the path cell, which is created if it doesn't exist
+     */
+    private void join(int slot, int pathIndex) {
+        Cell cell = cells[pathIndex];
+        if (cell == null) {
+            int distance = pathIndex << CompiledPath.SHIFT;
+            int x = (int) Math.round(path.xAt(distance));
+            int z = (int) Math.round(path.zAt(distance));
+            cell = new Cell(Position.block(x, y, z), world.getBlockAt(x, y, z).getBlockData());
+            cells[pathIndex] = cell;
+        }
+        if (cell.count++ == 0) {
+            // the cell looks like the enemy that entered it first
+            cell.block = archetype[slot].getBlock();
+            markChanged(cell);
+        }
+        cellOf[slot] = pathIndex;
+    }
+
+    /**
+     * Removes the enemy from its cell, which is reset if it is empty afterward
+     */
+    private void leave(int slot) {
+        Cell cell = cells[cellOf[slot]];
+        cellOf[slot] = -1;
+        if (--cell.count == 0) {
+            markChanged(cell);
+        }
+    }
+
+    private void markChanged(Cell cell) {
+        if (!cell.changed) {
+            cell.changed = true;
+            changed.add(cell);
+        }
+    }
+
+    /**
+     * Sends every occupied cell to the player
+     * @param occupied if the enemy blocks or the real blocks are sent
+     */
+    private void sendAll(Player player, boolean occupied) {
+        for (Cell cell : cells) {
+            if (cell != null && cell.count > 0) {
+                blockChanges.put(cell.position, occupied ? cell.block : cell.realBlock);
+            }
+        }
+        if (!blockChanges.isEmpty()) {
+            player.sendMultiBlockChange(blockChanges);
+            blockChanges.clear();
+        }
+    }
+
+    /**
+     * A path cell and the enemies in it
+     */
+    private static class Cell {
+        final Position position;
+        final BlockData realBlock; // the block that is really there, sent when the cell empties
+        int count = 0;
+        BlockData block; // the block shown while the cell is occupied
+        boolean changed = false; // if the cell is in the list of changed cells
+
+        Cell(Position position, BlockData realBlock) {
+            this.position = position;
+            this.realBlock = realBlock;
+        }
+    }
+}
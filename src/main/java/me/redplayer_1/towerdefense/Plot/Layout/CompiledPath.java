@@ -0,0 +1,110 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Geometry.Direction;
+
+/**
+ * A layout's path compiled into a polyline of world coordinates. Positions along the path are fixed-point distances
+ * ({@link #ONE} units per block) from its start, so the path index and world position of any distance are simple
+ * array lookups.
+ */
+public class CompiledPath {
+    /** The number of bits used for the fractional part of a distance */
+    public static final int SHIFT = 10;
+    /** The fixed-point distance of one block */
+    public static final int ONE = 1 << SHIFT;
+
+    private final int cells;
+    private final int length;
+    // the polyline's points (the start, every turn, and the end)
+    private final double[] pointX;
+    private final double[] pointZ;
+    private final int[] pointDistance;
+    // the direction of the segment that starts at each point
+    private final int[] segmentModX;
+    private final int[] segmentModZ;
+    private final int[] segmentOfCell; // the segment that each path index is on
+
+    /**
+     * Compiles a path
+     * @param path the direction of each path tile
+     * @param startX the x-coordinate that the path starts at
+     * @param startZ the z-coordinate that the path starts at
+     */
+    public CompiledPath(Direction[] path, double startX, double startZ) {
+        cells = path.length;
+        length = path.length * ONE;
+        int segments = 0;
+        for (int i = 0; i < path.length; i++) {
+            if (i == 0 || path[i] != path[i - 1]) {
+                segments++;
+            }
+        }
+        pointX = new double[segments + 1];
+        pointZ = new double[segments + 1];
+        pointDistance = new int[segments + 1];
+        segmentModX = new int[segments];
+        segmentModZ = new int[segments];
+        segmentOfCell = new int[path.length];
+
+        double x = startX;
+        double z = startZ;
+        int segment = -1;
+        for (int i = 0; i < path.length; i++) {
+            if (i == 0 || path[i] != path[i - 1]) {
+                segment++;
+                pointX[segment] = x;
+                pointZ[segment] = z;
+                pointDistance[segment] = i * ONE;
+                segmentModX[segment] = path[i].getModX();
+                segmentModZ[segment] = path[i].getModZ();
+            }
+            segmentOfCell[i] = segment;
+            x += path[i].getModX();
+            z += path[i].getModZ();
+        }
+        pointX[segments] = x;
+        pointZ[segments] = z;
+        pointDistance[segments] = length;
+    }
+
+    /**
+     * @return the fixed-point length of the path. Distances at or past this value are off the path.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @param distance a fixed-point distance along the path
+     * @return the path index at the distance
+     */
+    public int cellAt(int distance) {
+        return Math.max(0, Math.min(distance >> SHIFT, cells - 1));
+    }
+
+    /**
+     * @param distance a fixed-point distance along the path
+     * @return the x-coordinate at the distance
+     */
+    public double xAt(int distance) {
+        int segment = segmentOfCell[cellAt(distance)];
+        return pointX[segment] + segmentModX[segment] * (double) (distance - pointDistance[segment]) / ONE;
+    }
+
+    /**
+     * @param distance a fixed-point distance along the path
+     * @return the z-coordinate at the distance
+     */
+    public double zAt(int distance) {
+        int segment = segmentOfCell[cellAt(distance)];
+        return pointZ[segment] + segmentModZ[segment] * (double) (distance - pointDistance[segment]) / ONE;
+    }
+
+    /**
+     * @param distance a fixed-point distance along the path
+     * @return the distance of the next turn (or the end of the path) after the distance
+     */
+    public int nextCornerDistance(int distance) {
+        return pointDistance[segmentOfCell[cellAt(distance)] + 1];
+    }
+}
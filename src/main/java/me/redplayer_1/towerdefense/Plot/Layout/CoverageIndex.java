@@ -0,0 +1,272 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Plot.Tower.Tower;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Indexes a layout's path by cell (path index). For every cell, the index keeps the towers that can reach it and a
+ * bucket of the enemies that are currently on it, so towers only have to look at the enemies in the cells they cover.
+ * Buckets are ordered by the enemies' progress along the path (furthest first), so walking the cells from the end of
+ * the path to the start visits enemies in path order. Progress is {@link #update(int, int) updated} every step, so
+ * faster enemies that overtake slower ones in the same cell are moved ahead of them. Enemies are identified by their
+ * {@link EnemyStore} slot. {@link Tower#isArmed() Armed} towers that get an enemy in range are collected so that the
+ * layout can wake them up.
+ */
+public class CoverageIndex {
+    private static final int INITIAL_CAPACITY = 16;
+    private final ArrayList<ArrayList<Tower>> towersByCell;
+    private final int[] head; // first (furthest along) enemy in each cell's bucket, or -1 if the bucket is empty
+    private final int[] tail; // last enemy in each cell's bucket, or -1 if the bucket is empty
+    private final int[] cellSize; // number of enemies in each cell
+    private int[] next; // next enemy in the same bucket, or -1
+    private int[] prev; // previous enemy in the same bucket, or -1
+    private int[] cellOf; // the cell each enemy is in, or -1 if it isn't indexed
+    private int[] progress; // each enemy's progress along the path, updated every step
+    private final ArrayList<Tower> woken = new ArrayList<>(); // armed towers that now have enemies in range
+
+    /**
+     * Creates a new index without any towers or enemies
+     * @param pathLength the number of cells in the path
+     */
+    public CoverageIndex(int pathLength) {
+        towersByCell = new ArrayList<>(pathLength);
+        for (int i = 0; i < pathLength; i++) {
+            towersByCell.add(new ArrayList<>(0));
+        }
+        head = new int[pathLength];
+        Arrays.fill(head, -1);
+        tail = new int[pathLength];
+        Arrays.fill(tail, -1);
+        cellSize = new int[pathLength];
+        next = new int[INITIAL_CAPACITY];
+        prev = new int[INITIAL_CAPACITY];
+        cellOf = new int[INITIAL_CAPACITY];
+        Arrays.fill(cellOf, -1);
+        progress = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a tower to every cell in its {@link Tower#getAccessiblePathIndices() accessible path indices}. The tower's
+     * accessible indices must already be computed.
+     * @param tower the tower to add
+     */
+    public void addTower(Tower tower) {
+        for (int cell : tower.getAccessiblePathIndices()) {
+            towersByCell.get(cell).add(tower);
+            tower.addEnemiesInRange(cellSize[cell]);
+        }
+    }
+
+    /**
+     * Removes the tower from every cell it was added to
+     * @param tower the tower to remove
+     */
+    public void removeTower(Tower tower) {
+        for (int cell : tower.getAccessiblePathIndices()) {
+            if (towersByCell.get(cell).remove(tower)) {
+                tower.addEnemiesInRange(-cellSize[cell]);
+            }
+        }
+    }
+
+    /**
+     * @param cell the path index
+     * @return the towers that can reach the cell
+     */
+    public List<Tower> getTowers(int cell) {
+        return towersByCell.get(cell);
+    }
+
+    /**
+     * Adds an enemy to the bucket of a cell, behind every enemy that is further along the path
+     * @param slot the enemy's slot
+     * @param cell the path index the enemy is on
+     * @param progress the enemy's progress along the path (its {@link EnemyStore#getDistance(int) distance})
+     */
+    public void add(int slot, int cell, int progress) {
+        if (slot >= cellOf.length) {
+            grow(slot + 1);
+        }
+        cellOf[slot] = cell;
+        this.progress[slot] = progress;
+        // entering enemies are usually behind the ones already in the cell, so the search starts at the tail
+        link(slot, cell, findBefore(tail[cell], progress));
+        changeCellSize(cell, 1);
+    }
+
+    /**
+     * Updates the progress of an enemy that stayed in its cell. Enemies only move forward, so an enemy that overtook
+     * slower ones in the same cell is moved ahead of them, which keeps the bucket ordered.
+     * @param slot the enemy's slot
+     * @param progress the enemy's progress along the path
+     */
+    public void update(int slot, int progress) {
+        if (slot >= cellOf.length || cellOf[slot] == -1) return;
+        this.progress[slot] = progress;
+        int before = prev[slot];
+        if (before == -1 || this.progress[before] >= progress) return;
+        int cell = cellOf[slot];
+        unlink(slot, cell);
+        link(slot, cell, findBefore(before, progress));
+    }
+
+    /**
+     * @param from the enemy to start searching at, going toward the head of its bucket
+     * @param progress the progress of the enemy to place
+     * @return the last enemy that is at least as far along as the progress, or -1 if there is none
+     */
+    private int findBefore(int from, int progress) {
+        int before = from;
+        while (before != -1 && this.progress[before] < progress) {
+            before = prev[before];
+        }
+        return before;
+    }
+
+    /**
+     * Inserts an enemy into a bucket after another enemy
+     * @param before the enemy to insert after, or -1 to insert at the head
+     */
+    private void link(int slot, int cell, int before) {
+        prev[slot] = before;
+        next[slot] = before != -1 ? next[before] : head[cell];
+        if (before != -1) {
+            next[before] = slot;
+        } else {
+            head[cell] = slot;
+        }
+        if (next[slot] != -1) {
+            prev[next[slot]] = slot;
+        } else {
+            tail[cell] = slot;
+        }
+    }
+
+    private void unlink(int slot, int cell) {
+        if (prev[slot] != -1) {
+            next[prev[slot]] = next[slot];
+        } else {
+            head[cell] = next[slot];
+        }
+        if (next[slot] != -1) {
+            prev[next[slot]] = prev[slot];
+        } else {
+            tail[cell] = prev[slot];
+        }
+    }
+
+    /**
+     * Removes an enemy from the bucket it is in. Does nothing if the enemy isn't indexed.
+     * @param slot the enemy's slot
+     */
+    public void remove(int slot) {
+        if (slot >= cellOf.length) return;
+        int cell = cellOf[slot];
+        if (cell == -1) return;
+        unlink(slot, cell);
+        cellOf[slot] = -1;
+        changeCellSize(cell, -1);
+    }
+
+    /**
+     * Moves an enemy to the bucket of another cell
+     * @param slot the enemy's slot
+     * @param cell the path index the enemy is now on
+     * @param progress the enemy's progress along the path
+     */
+    public void move(int slot, int cell, int progress) {
+        if (slot < cellOf.length && cellOf[slot] == cell) return;
+        remove(slot);
+        add(slot, cell, progress);
+    }
+
+    /**
+     * @param cell the path index
+     * @return the first enemy in the cell's bucket, or -1 if there are none
+     */
+    public int first(int cell) {
+        return head[cell];
+    }
+
+    /**
+     * @param cell the path index
+     * @return the last (closest to the start of the path) enemy in the cell's bucket, or -1 if there are none
+     */
+    public int last(int cell) {
+        return tail[cell];
+    }
+
+    /**
+     * @param slot an enemy in a bucket
+     * @return the enemy after it in the same bucket, or -1 if it is the last one
+     */
+    public int next(int slot) {
+        return next[slot];
+    }
+
+    /**
+     * @param slot an enemy in a bucket
+     * @return the enemy before it in the same bucket, or -1 if it is the first one
+     */
+    public int prev(int slot) {
+        return prev[slot];
+    }
+
+    /**
+     * @param cell the path index
+     * @return the number of enemies on the cell
+     */
+    public int size(int cell) {
+        return cellSize[cell];
+    }
+
+    /**
+     * Moves the armed towers that got an enemy in range since the last call into a list
+     * @param towers the list to add the towers to
+     */
+    public void drainWoken(List<Tower> towers) {
+        towers.addAll(woken);
+        woken.clear();
+    }
+
+    /**
+     * Removes every enemy from the index. Towers are kept.
+     */
+    public void clear() {
+        for (int cell = 0; cell < head.length; cell++) {
+            if (cellSize[cell] != 0) {
+                changeCellSize(cell, -cellSize[cell]);
+            }
+        }
+        Arrays.fill(head, -1);
+        Arrays.fill(tail, -1);
+        Arrays.fill(cellOf, -1);
+        woken.clear();
+    }
+
+    private void changeCellSize(int cell, int delta) {
+        cellSize[cell] += delta;
+        ArrayList<Tower> towers = towersByCell.get(cell);
+        for (int i = 0; i < towers.size(); i++) {
+            Tower tower = towers.get(i);
+            boolean hadEnemies = tower.hasEnemiesInRange();
+            tower.addEnemiesInRange(delta);
+            if (!hadEnemies && tower.isArmed() && tower.hasEnemiesInRange()) {
+                woken.add(tower);
+            }
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, cellOf.length * 2);
+        int oldCapacity = cellOf.length;
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        cellOf = Arrays.copyOf(cellOf, capacity);
+        Arrays.fill(cellOf, oldCapacity, capacity, -1);
+        progress = Arrays.copyOf(progress, capacity);
+    }
+}
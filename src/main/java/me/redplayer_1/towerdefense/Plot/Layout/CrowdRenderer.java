@@ -0,0 +1,236 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Plot.Enemy.EnemyArchetype;
+import me.redplayer_1.towerdefense.TowerDefense;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.BlockDisplay;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Shows the enemies on each path cell as one crowd: a single block display with a text display riding it that shows
+ * the number of enemies, a bar of their remaining health, and their combined health. Used for endless waves, where
+ * one pair of displays per enemy doesn't scale to thousands of enemies per plot. The enemies are still simulated
+ * individually; the renderer only groups them by the path cell that they are in, which it is told about every time
+ * an enemy {@link #enterCell(int, int) enters a cell}. Crowds never move, so their displays are only taken from and
+ * released to the {@link DisplayPool} when a cell fills up or empties, and their text is updated once per flush.
+ */
+public class CrowdRenderer implements EnemyRenderer {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final DisplayPool pool;
+    private final CompiledPath path;
+    private final Location scratch; // reused for every new crowd
+    private final double entityHeight;
+    private final EnemyViewers viewers = new EnemyViewers();
+    private final Consumer<Player> onViewerAdded = player -> setShownAll(player, true);
+    private final Consumer<Player> onViewerRemoved = player -> setShownAll(player, false);
+    private final Crowd[] crowdAt; // the crowd in each path cell, or null if the cell is empty
+    private final ArrayList<Crowd> changed = new ArrayList<>(); // crowds whose text needs to be updated
+    private int[] cellOf; // the path cell that each enemy is in, or -1 if it isn't shown
+    private EnemyArchetype[] archetype;
+    private int[] health;
+    private int[] maxHealth;
+
+    /**
+     * Creates a new renderer
+     * @param pool the pool that entities are taken from and released to
+     * @param path the path that the enemies follow
+     * @param world the world that the enemies are in
+     * @param y the y-coordinate that the enemies move at
+     * @param entityHeight the height of the enemy entities in blocks
+     */
+    public CrowdRenderer(DisplayPool pool, CompiledPath path, World world, double y, double entityHeight) {
+        this.pool = pool;
+        this.path = path;
+        scratch = new Location(world, 0, y, 0);
+        this.entityHeight = entityHeight;
+        crowdAt = new Crowd[path.getLength() >> CompiledPath.SHIFT];
+        cellOf = new int[INITIAL_CAPACITY];
+        Arrays.fill(cellOf, -1);
+        archetype = new EnemyArchetype[INITIAL_CAPACITY];
+        health = new int[INITIAL_CAPACITY];
+        maxHealth = new int[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void spawn(int slot, EnemyArchetype archetype, int pathIndex, double x, double y, double z, int health) {
+        if (slot >= cellOf.length) {
+            int oldCapacity = cellOf.length;
+            int capacity = Math.max(slot + 1, oldCapacity * 2);
+            cellOf = Arrays.copyOf(cellOf, capacity);
+            Arrays.fill(cellOf, oldCapacity, capacity, -1);
+            this.archetype = Arrays.copyOf(this.archetype, capacity);
+            this.health = Arrays.copyOf(this.health, capacity);
+            maxHealth = Arrays.copyOf(maxHealth, capacity);
+        }
+        this.archetype[slot] = archetype;
+        this.health[slot] = health;
+        maxHealth[slot] = health;
+        join(slot, pathIndex);
+    }
+
+    /**
+     * Moves the enemy to the crowd of the cell it entered
+     */
+    @Override
+    public void enterCell(int slot, int pathIndex) {
+        if (slot >= cellOf.length || cellOf[slot] == -1 || cellOf[slot] == pathIndex) return;
+        leave(slot);
+        join(slot, pathIndex);
+    }
+
+    /**
+     * Does nothing, since crowds don't move
+     */
+    @Override
+    public boolean move(int slot, double x, double y, double z, int durationTicks) {
+        return slot < cellOf.length && cellOf[slot] != -1;
+    }
+
+    @Override
+    public void showHealth(int slot, int health) {
+        if (slot >= cellOf.length || cellOf[slot] == -1 || this.health[slot] == health) return;
+        Crowd crowd = crowdAt[cellOf[slot]];
+        crowd.health += health - this.health[slot];
+        this.health[slot] = health;
+        markChanged(crowd);
+    }
+
+    @Override
+    public void remove(int slot) {
+        if (slot >= cellOf.length || cellOf[slot] == -1) return;
+        leave(slot);
+        archetype[slot] = null;
+    }
+
+    @Override
+    public void clear() {
+        for (int cell = 0; cell < crowdAt.length; cell++) {
+            if (crowdAt[cell] != null) {
+                release(crowdAt[cell]);
+                crowdAt[cell] = null;
+            }
+        }
+        changed.clear();
+        Arrays.fill(cellOf, -1);
+        Arrays.fill(archetype, null);
+    }
+
+    @Override
+    public void refresh() { }
+
+    /**
+     * Updates the text of every crowd that changed during the flush
+     */
+    @Override
+    public void endFlush() {
+        for (int i = 0; i < changed.size(); i++) {
+            Crowd crowd = changed.get(i);
+            crowd.changed = false;
+            // crowds that emptied were already released
+            if (crowd.count > 0) {
+                crowd.badge.text(HealthBar.ofCrowd(crowd.count, crowd.health, crowd.maxHealth));
+            }
+        }
+        changed.clear();
+    }
+
+    @Override
+    public void setViewers(List<Player> viewers) {
+        this.viewers.update(viewers, onViewerAdded, onViewerRemoved);
+    }
+
+    /**
+     * Adds the enemy to the crowd of the path cell, which is created if it doesn't exist
+     */
+    private void join(int slot, int pathIndex) {
+        Crowd crowd = crowdAt[pathIndex];
+        if (crowd == null) {
+            // the crowd looks like the enemy that started it and stands on the block of its cell
+            int distance = pathIndex << CompiledPath.SHIFT;
+            scratch.setX(path.xAt(distance));
+            scratch.setZ(path.zAt(distance));
+            BlockDisplay entity = DisplayEnemyRenderer.acquireEntity(pool, scratch, archetype[slot]);
+            TextDisplay badge = DisplayEnemyRenderer.acquireHealthDisplay(pool, scratch, entity, archetype[slot], entityHeight);
+            viewers.show(entity);
+            viewers.show(badge);
+            crowd = new Crowd(entity, badge);
+            crowdAt[pathIndex] = crowd;
+        }
+        crowd.count++;
+        crowd.health += health[slot];
+        crowd.maxHealth += maxHealth[slot];
+        cellOf[slot] = pathIndex;
+        markChanged(crowd);
+    }
+
+    /**
+     * Removes the enemy from its crowd, which is released if it is empty afterward
+     */
+    private void leave(int slot) {
+        int pathIndex = cellOf[slot];
+        Crowd crowd = crowdAt[pathIndex];
+        cellOf[slot] = -1;
+        crowd.count--;
+        crowd.health -= health[slot];
+        crowd.maxHealth -= maxHealth[slot];
+        if (crowd.count == 0) {
+            crowdAt[pathIndex] = null;
+            release(crowd);
+        } else {
+            markChanged(crowd);
+        }
+    }
+
+    private void release(Crowd crowd) {
+        viewers.hide(crowd.entity);
+        viewers.hide(crowd.badge);
+        crowd.entity.removePassenger(crowd.badge);
+        pool.release(crowd.entity);
+        pool.release(crowd.badge);
+    }
+
+    private void markChanged(Crowd crowd) {
+        if (!crowd.changed) {
+            crowd.changed = true;
+            changed.add(crowd);
+        }
+    }
+
+    private void setShownAll(Player player, boolean shown) {
+        for (Crowd crowd : crowdAt) {
+            if (crowd == null) continue;
+            if (shown) {
+                player.showEntity(TowerDefense.INSTANCE, crowd.entity);
+                player.showEntity(TowerDefense.INSTANCE, crowd.badge);
+            } else {
+                player.hideEntity(TowerDefense.INSTANCE, crowd.entity);
+                player.hideEntity(TowerDefense.INSTANCE, crowd.badge);
+            }
+        }
+    }
+
+    /**
+     * The enemies in one path cell and the displays that show them
+     */
+    private static class Crowd {
+        final BlockDisplay entity;
+        final TextDisplay badge;
+        int count = 0;
+        int health = 0; // combined health of the enemies
+        int maxHealth = 0; // combined starting health of the enemies
+        boolean changed = false; // if the crowd is in the list of changed crowds
+
+        Crowd(BlockDisplay entity, TextDisplay badge) {
+            this.entity = entity;
+            this.badge = badge;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import io.papermc.paper.entity.TeleportFlag;
+import me.redplayer_1.towerdefense.Plot.Enemy.EnemyArchetype;
+import me.redplayer_1.towerdefense.TowerDefense;
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.BlockDisplay;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.util.Transformation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Shows every enemy as a block display with a text display riding it that shows its health. Entities are taken from
+ * and released to the layout's {@link DisplayPool}. While enemies are private, the entities are only shown to the
+ * layout's {@link #setViewers(List) viewers}.
+ */
+public class DisplayEnemyRenderer implements EnemyRenderer {
+    private static final NamespacedKey KEY = new NamespacedKey(TowerDefense.INSTANCE, "enemy");
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final DisplayPool pool;
+    private final Location scratch; // reused for every teleport
+    private final double entityHeight;
+    private final EnemyViewers viewers = new EnemyViewers();
+    private final Consumer<Player> onViewerAdded = player -> setShownAll(player, true);
+    private final Consumer<Player> onViewerRemoved = player -> setShownAll(player, false);
+    private Display[] entity;
+    private TextDisplay[] healthDisplay;
+    private int[] shownHealth; // the health shown by the health display
+
+    /**
+     * Creates a new renderer
+     * @param pool the pool that entities are taken from and released to
+     * @param world the world that the enemies are in
+     * @param entityHeight the height of the enemy entities in blocks
+     */
+    public DisplayEnemyRenderer(DisplayPool pool, World world, double entityHeight) {
+        this.pool = pool;
+        scratch = new Location(world, 0, 0, 0);
+        this.entityHeight = entityHeight;
+        entity = new Display[INITIAL_CAPACITY];
+        healthDisplay = new TextDisplay[INITIAL_CAPACITY];
+        shownHealth = new int[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void spawn(int slot, EnemyArchetype archetype, int pathIndex, double x, double y, double z, int health) {
+        if (slot >= entity.length) {
+            int capacity = Math.max(slot + 1, entity.length * 2);
+            entity = Arrays.copyOf(entity, capacity);
+            healthDisplay = Arrays.copyOf(healthDisplay, capacity);
+            shownHealth = Arrays.copyOf(shownHealth, capacity);
+        }
+        scratch.set(x, y, z);
+        BlockDisplay entity = acquireEntity(pool, scratch, archetype);
+        // the health display rides the entity, so only the entity needs to be moved
+        TextDisplay healthDisplay = acquireHealthDisplay(pool, scratch, entity, archetype, entityHeight);
+        viewers.show(entity);
+        viewers.show(healthDisplay);
+        this.entity[slot] = entity;
+        this.healthDisplay[slot] = healthDisplay;
+        shownHealth[slot] = -1;
+        showHealth(slot, health);
+    }
+
+    /**
+     * Takes a block display from the pool and sets it up to show an enemy
+     * @param pool the pool to take the display from
+     * @param location the location of the display
+     * @param archetype the type of enemy that the display shows
+     * @return the display
+     */
+    static BlockDisplay acquireEntity(DisplayPool pool, Location location, EnemyArchetype archetype) {
+        BlockDisplay entity = pool.acquireBlockDisplay(location);
+        entity.setBlock(archetype.getBlock());
+        entity.setGravity(false);
+        entity.setInvulnerable(true);
+        entity.setGlowing(true);
+        entity.getPersistentDataContainer().set(KEY, PersistentDataType.BOOLEAN, true);
+        Transformation entityTransform = entity.getTransformation();
+        entityTransform.getScale().set((float) archetype.getScale());
+        entity.setTransformation(entityTransform);
+        return entity;
+    }
+
+    /**
+     * Takes a text display from the pool and sets it up to ride an enemy's display above it
+     * @param pool the pool to take the display from
+     * @param location the location of the display
+     * @param entity the display that the text display rides
+     * @param archetype the type of enemy that the entity shows
+     * @param entityHeight the height of the enemy entities in blocks
+     * @return the text display
+     */
+    static TextDisplay acquireHealthDisplay(DisplayPool pool, Location location, Display entity, EnemyArchetype archetype, double entityHeight) {
+        TextDisplay healthDisplay = pool.acquireTextDisplay(location);
+        healthDisplay.setSeeThrough(false);
+        healthDisplay.setBackgroundColor(Color.BLACK);
+        Transformation t = healthDisplay.getTransformation();
+        t.getTranslation().set(.5, entityHeight * archetype.getScale(), .5);
+        t.getRightRotation().setAngleAxis(1.5, -1, 0, 0);
+        healthDisplay.setTransformation(t);
+        entity.addPassenger(healthDisplay);
+        return healthDisplay;
+    }
+
+    @Override
+    public void enterCell(int slot, int pathIndex) { }
+
+    @Override
+    public boolean move(int slot, double x, double y, double z, int durationTicks) {
+        if (slot >= entity.length || entity[slot] == null) return false;
+        scratch.set(x, y, z);
+        entity[slot].setTeleportDuration(durationTicks);
+        // the health display is a passenger, so it is moved with the entity
+        return entity[slot].teleport(scratch, TeleportFlag.EntityState.RETAIN_PASSENGERS);
+    }
+
+    /**
+     * Shows the enemy's health on its health display. Does nothing if the shown value wouldn't change.
+     */
+    @Override
+    public void showHealth(int slot, int health) {
+        if (slot < healthDisplay.length && healthDisplay[slot] != null && shownHealth[slot] != health) {
+            shownHealth[slot] = health;
+            healthDisplay[slot].text(HealthBar.of(health));
+        }
+    }
+
+    /**
+     * Releases the enemy's entities to the pool
+     */
+    @Override
+    public void remove(int slot) {
+        if (slot >= entity.length || entity[slot] == null) return;
+        viewers.hide(entity[slot]);
+        viewers.hide(healthDisplay[slot]);
+        entity[slot].removePassenger(healthDisplay[slot]);
+        pool.release(entity[slot]);
+        pool.release(healthDisplay[slot]);
+        entity[slot] = null;
+        healthDisplay[slot] = null;
+    }
+
+    @Override
+    public void clear() {
+        for (int slot = 0; slot < entity.length; slot++) {
+            remove(slot);
+        }
+    }
+
+    @Override
+    public void refresh() { }
+
+    @Override
+    public void endFlush() { }
+
+    /**
+     * Shows the entities to players that became viewers and hides them from players that no longer are
+     */
+    @Override
+    public void setViewers(List<Player> viewers) {
+        this.viewers.update(viewers, onViewerAdded, onViewerRemoved);
+    }
+
+    private void setShownAll(Player player, boolean shown) {
+        for (int slot = 0; slot < entity.length; slot++) {
+            if (entity[slot] == null) continue;
+            if (shown) {
+                player.showEntity(TowerDefense.INSTANCE, entity[slot]);
+                player.showEntity(TowerDefense.INSTANCE, healthDisplay[slot]);
+            } else {
+                player.hideEntity(TowerDefense.INSTANCE, entity[slot]);
+                player.hideEntity(TowerDefense.INSTANCE, healthDisplay[slot]);
+            }
+        }
+    }
+
+    /**
+     * @return the entity that represents the enemy, or null if it isn't shown
+     */
+    public @Nullable Display getEntity(int slot) {
+        return slot < entity.length ? entity[slot] : null;
+    }
+}
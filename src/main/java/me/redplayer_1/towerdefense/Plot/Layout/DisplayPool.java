@@ -0,0 +1,137 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import org.bukkit.Location;
+import org.bukkit.entity.BlockDisplay;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.TextDisplay;
+
+import java.util.ArrayDeque;
+
+/**
+ * Keeps the display entities of dead enemies so that they can be reused by newly spawned enemies instead of being
+ * removed and spawned again. Unused displays are hidden from every player, so they aren't sent to any client, and
+ * parked at a fixed location. Reused displays stay hidden until the caller shows them again with
+ * {@link org.bukkit.entity.Entity#setVisibleByDefault(boolean)} or {@link org.bukkit.entity.Player#showEntity}.
+ * Pooled displays aren't persistent, so they are never saved with their chunk.
+ */
+public class DisplayPool {
+    private static int maxSize = 64; // the maximum number of parked displays (of each type) per pool
+    private static long totalHits = 0;
+    private static long totalMisses = 0;
+
+    private final Location parkLocation;
+    private final ArrayDeque<BlockDisplay> blockDisplays = new ArrayDeque<>();
+    private final ArrayDeque<TextDisplay> textDisplays = new ArrayDeque<>();
+
+    /**
+     * Creates a new empty pool
+     * @param parkLocation the location that unused displays are moved to
+     */
+    public DisplayPool(Location parkLocation) {
+        this.parkLocation = parkLocation.clone();
+    }
+
+    /**
+     * Gets a parked block display or spawns a new one if none are available
+     * @param location the location to move the display to
+     * @return the display, which is hidden if it was parked
+     */
+    public BlockDisplay acquireBlockDisplay(Location location) {
+        BlockDisplay display = poll(blockDisplays, location);
+        if (display == null) {
+            display = (BlockDisplay) location.getWorld().spawnEntity(location, EntityType.BLOCK_DISPLAY);
+            display.setPersistent(false);
+        }
+        return display;
+    }
+
+    /**
+     * Gets a parked text display or spawns a new one if none are available
+     * @param location the location to move the display to
+     * @return the display, which is hidden if it was parked
+     */
+    public TextDisplay acquireTextDisplay(Location location) {
+        TextDisplay display = poll(textDisplays, location);
+        if (display == null) {
+            display = (TextDisplay) location.getWorld().spawnEntity(location, EntityType.TEXT_DISPLAY);
+            display.setPersistent(false);
+        }
+        return display;
+    }
+
+    private <T extends Display> T poll(ArrayDeque<T> parked, Location location) {
+        T display;
+        while ((display = parked.pollLast()) != null) {
+            // parked displays are removed if their chunk is unloaded
+            if (display.isValid()) {
+                display.teleport(location);
+                totalHits++;
+                return display;
+            }
+        }
+        totalMisses++;
+        return null;
+    }
+
+    /**
+     * Hides and parks the display so that it can be reused. If the pool is full, the display is removed instead.
+     * @param display the display to release (must not be used afterward)
+     */
+    public void release(Display display) {
+        if (display instanceof BlockDisplay blockDisplay) {
+            park(blockDisplays, blockDisplay);
+        } else if (display instanceof TextDisplay textDisplay) {
+            park(textDisplays, textDisplay);
+        } else {
+            display.remove();
+        }
+    }
+
+    private <T extends Display> void park(ArrayDeque<T> parked, T display) {
+        if (parked.size() >= maxSize || !display.isValid()) {
+            display.remove();
+            return;
+        }
+        display.setVisibleByDefault(false);
+        // reused displays must not interpolate from where they were parked
+        display.setTeleportDuration(0);
+        display.teleport(parkLocation);
+        parked.addLast(display);
+    }
+
+    /**
+     * Removes all parked displays
+     */
+    public void clear() {
+        blockDisplays.forEach(Display::remove);
+        textDisplays.forEach(Display::remove);
+        blockDisplays.clear();
+        textDisplays.clear();
+    }
+
+    /**
+     * @return the number of times a parked display was reused by any pool
+     */
+    public static long getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * @return the number of times a new display had to be spawned by any pool
+     */
+    public static long getTotalMisses() {
+        return totalMisses;
+    }
+
+    /**
+     * @param size the maximum number of parked displays (of each type) that each pool keeps
+     */
+    public static void setMaxSize(int size) {
+        maxSize = Math.max(size, 0);
+    }
+
+    public static int getMaxSize() {
+        return maxSize;
+    }
+}
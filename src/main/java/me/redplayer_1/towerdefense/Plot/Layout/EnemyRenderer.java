@@ -0,0 +1,81 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Plot.Enemy.EnemyArchetype;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * Shows the enemies of an {@link EnemyStore} in the world. The store only holds the simulation state; the changes it
+ * records during a step are {@link EnemyStore#flush(EnemyRenderer, boolean) flushed} to the renderer on the main thread.
+ * Enemies are identified by their slot in the store.
+ */
+public interface EnemyRenderer {
+    /**
+     * Shows a newly spawned enemy
+     * @param slot the enemy's slot
+     * @param archetype the enemy's type
+     * @param pathIndex the path cell that the enemy is in
+     * @param x the enemy's x-coordinate
+     * @param y the enemy's y-coordinate
+     * @param z the enemy's z-coordinate
+     * @param health the enemy's starting health
+     */
+    void spawn(int slot, EnemyArchetype archetype, int pathIndex, double x, double y, double z, int health);
+
+    /**
+     * Called whenever the enemy enters another path cell, no matter how often it is {@link #move moved}. Renderers
+     * that show enemies per path cell move them here.
+     * @param slot the enemy's slot
+     * @param pathIndex the path cell that the enemy entered
+     */
+    void enterCell(int slot, int pathIndex);
+
+    /**
+     * Moves a shown enemy. The position is where the enemy will be at the end of the interpolation, which may be
+     * several cells ahead of the path cell it is in.
+     * @param slot the enemy's slot
+     * @param x the x-coordinate to move to
+     * @param y the y-coordinate to move to
+     * @param z the z-coordinate to move to
+     * @param durationTicks the number of ticks that clients should interpolate the movement over (0 for none)
+     * @return if the enemy could be moved. If not, it no longer exists in the world and is killed.
+     */
+    boolean move(int slot, double x, double y, double z, int durationTicks);
+
+    /**
+     * Shows an enemy's current health
+     * @param slot the enemy's slot
+     * @param health the enemy's health
+     */
+    void showHealth(int slot, int health);
+
+    /**
+     * Stops showing an enemy. Its slot may be reused afterward.
+     * @param slot the enemy's slot
+     */
+    void remove(int slot);
+
+    /**
+     * Stops showing every enemy
+     */
+    void clear();
+
+    /**
+     * Called when the enemies become visible again after their updates were skipped, before every enemy is moved to
+     * where it is. Renderers that only show enemies on their viewers' clients resend what they show, since the
+     * clients may have reloaded the area in the meantime.
+     */
+    void refresh();
+
+    /**
+     * Called at the end of every flush, after every change was passed to the renderer
+     */
+    void endFlush();
+
+    /**
+     * Sets the players that the enemies are shown to. Called every tick before the changes are flushed.
+     * @param viewers the players allowed to see the enemies
+     */
+    void setViewers(List<Player> viewers);
+}
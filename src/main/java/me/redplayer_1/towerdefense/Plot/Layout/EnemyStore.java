@@ -0,0 +1,548 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Plot.Enemy.EnemyArchetype;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Stores the state of all the enemies on a layout in parallel arrays. Each enemy is identified by its slot (the index
+ * into the arrays). When an enemy dies, its slot is kept until the death is {@link #pollDeath() polled} by the layout
+ * and is then reused for newly spawned enemies. Stats shared by every enemy of a type are kept in its
+ * {@link EnemyArchetype}, which each slot only references.
+ * <p>
+ * The store holds no entities, so a step can be simulated off the main thread. Teleports, health changes, and
+ * removals are recorded instead and {@link #flush(EnemyRenderer, boolean) flushed} to an {@link EnemyRenderer} on the main
+ * thread.
+ */
+public class EnemyStore {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte DIRTY_MOVE = 1; // the enemy needs to be teleported
+    private static final byte DIRTY_HEALTH = 2; // the enemy's shown health needs to be updated
+    private static final byte DIRTY_CELL = 4; // the enemy entered another path cell
+    private static final int MAX_TELEPORT_INTERVAL = 59; // the longest teleport duration clients will interpolate
+    private static MovementMode movementMode = MovementMode.STEPPED;
+    private static int teleportInterval = 10; // max steps between teleports in INTERPOLATED mode
+
+    private final CompiledPath path;
+    private final double y;
+    private final StatusEffects effects;
+    private float ticksPerStep = 1; // server ticks per movement step, used for client interpolation
+    private EnemyArchetype[] archetype;
+    private int[] health;
+    private int[] pendingDamage; // damage queued since the last resolve
+    private int[] distance; // fixed-point distance travelled along the path
+    private int[] baseSpeed; // fixed-point distance moved every step without any effects
+    private int[] speed; // fixed-point distance moved every step
+    private int[] pathIndex; // the path cell at the enemy's distance
+    private int[] teleportCountdown; // steps until the entities need to be teleported again
+    private int[] teleportTarget; // fixed-point distance that the entities are teleported to at the next flush
+    private int[] teleportDuration; // ticks that the next teleport is interpolated over
+    private boolean[] alive;
+    private DeathType[] deathType;
+    private byte[] dirtyFlags; // changes to flush for each enemy
+    private int[] dirty; // slots with changes to flush
+    private int dirtyCount = 0;
+    private int[] removed; // slots whose entities need to be removed at the next flush
+    private int removedCount = 0;
+    private boolean cleared = false; // if every entity needs to be removed at the next flush
+    private boolean stale = false; // if entity updates were skipped because nobody could see them
+    private int[] freeSlots; // stack of slots that can be reused
+    private int freeCount = 0;
+    private int[] damaged; // slots with pending damage
+    private int damagedCount = 0;
+    private int[] deaths; // queue of slots whose deaths haven't been polled yet
+    private int deathHead = 0;
+    private int deathCount = 0;
+    private int slotCount = 0; // slots at or above this index have never been used
+    private int aliveCount = 0;
+
+    /**
+     * Creates a new empty store
+     * @param path the path that the enemies follow
+     * @param y the y-coordinate that the enemies move at
+     */
+    public EnemyStore(CompiledPath path, double y) {
+        this.path = path;
+        this.y = y;
+        effects = new StatusEffects(this);
+        archetype = new EnemyArchetype[INITIAL_CAPACITY];
+        health = new int[INITIAL_CAPACITY];
+        pendingDamage = new int[INITIAL_CAPACITY];
+        distance = new int[INITIAL_CAPACITY];
+        baseSpeed = new int[INITIAL_CAPACITY];
+        speed = new int[INITIAL_CAPACITY];
+        pathIndex = new int[INITIAL_CAPACITY];
+        teleportCountdown = new int[INITIAL_CAPACITY];
+        teleportTarget = new int[INITIAL_CAPACITY];
+        teleportDuration = new int[INITIAL_CAPACITY];
+        alive = new boolean[INITIAL_CAPACITY];
+        deathType = new DeathType[INITIAL_CAPACITY];
+        dirtyFlags = new byte[INITIAL_CAPACITY];
+        dirty = new int[INITIAL_CAPACITY];
+        removed = new int[INITIAL_CAPACITY];
+        freeSlots = new int[INITIAL_CAPACITY];
+        damaged = new int[INITIAL_CAPACITY];
+        deaths = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a new enemy to the store at the start of the path. The caller is responsible for showing it with the
+     * store's {@link EnemyRenderer}.
+     * @param archetype the enemy's type, which provides its speed and size
+     * @param health the starting amount of health the enemy should have
+     * @return the slot of the new enemy
+     */
+    public int spawn(EnemyArchetype archetype, int health) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == alive.length) {
+                grow();
+            }
+            slot = slotCount++;
+        }
+        this.archetype[slot] = archetype;
+        this.health[slot] = health;
+        distance[slot] = 0;
+        baseSpeed[slot] = archetype.getSpeed();
+        speed[slot] = archetype.getSpeed();
+        pathIndex[slot] = 0;
+        teleportCountdown[slot] = 0;
+        alive[slot] = true;
+        deathType[slot] = null;
+        aliveCount++;
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = alive.length * 2;
+        archetype = Arrays.copyOf(archetype, capacity);
+        health = Arrays.copyOf(health, capacity);
+        pendingDamage = Arrays.copyOf(pendingDamage, capacity);
+        distance = Arrays.copyOf(distance, capacity);
+        baseSpeed = Arrays.copyOf(baseSpeed, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        pathIndex = Arrays.copyOf(pathIndex, capacity);
+        teleportCountdown = Arrays.copyOf(teleportCountdown, capacity);
+        teleportTarget = Arrays.copyOf(teleportTarget, capacity);
+        teleportDuration = Arrays.copyOf(teleportDuration, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        deathType = Arrays.copyOf(deathType, capacity);
+        dirtyFlags = Arrays.copyOf(dirtyFlags, capacity);
+        dirty = Arrays.copyOf(dirty, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        damaged = Arrays.copyOf(damaged, capacity);
+        // the death queue is circular, so it is unrolled into the new array
+        int[] newDeaths = new int[capacity];
+        for (int i = 0; i < deathCount; i++) {
+            newDeaths[i] = deaths[(deathHead + i) % deaths.length];
+        }
+        deaths = newDeaths;
+        deathHead = 0;
+    }
+
+    /**
+     * Moves the enemy one step (its speed) along the path. If the end of the path is reached, the enemy is killed.
+     * How often the entities are teleported depends on the {@link MovementMode}.
+     * @param slot the enemy's slot
+     */
+    public void move(int slot) {
+        if (!alive[slot]) return;
+        if (teleportCountdown[slot] <= 0) {
+            scheduleTeleport(slot);
+        }
+        teleportCountdown[slot]--;
+        distance[slot] += speed[slot];
+        if (distance[slot] >= path.getLength()) {
+            // kill the enemy because the end of the path was reached
+            kill(slot, DeathType.PATH);
+            return;
+        }
+        int cell = path.cellAt(distance[slot]);
+        if (cell != pathIndex[slot]) {
+            pathIndex[slot] = cell;
+            markDirty(slot, DIRTY_CELL);
+        }
+    }
+
+    /**
+     * Records a teleport of the enemy's entities to where the enemy will be after the next teleport interval. In
+     * {@link MovementMode#INTERPOLATED INTERPOLATED} mode, clients smoothly move the entities there over that time.
+     * While the {@link LoadGovernor} has lowered the quality, entities are always interpolated over a longer interval
+     * and deferred health display updates are shown with the teleport.
+     */
+    private void scheduleTeleport(int slot) {
+        LoadGovernor.QualityLevel quality = LoadGovernor.getLevel();
+        int steps = 1;
+        int duration = 0;
+        int target = distance[slot] + speed[slot];
+        if (movementMode == MovementMode.INTERPOLATED || quality.isCoarseMovement()) {
+            // teleports can't go around corners, so the interval ends early at the next turn
+            int corner = path.nextCornerDistance(distance[slot]);
+            steps = Math.min(quality.scaleTeleportInterval(teleportInterval), MAX_TELEPORT_INTERVAL);
+            if (speed[slot] > 0) {
+                steps = Math.max(1, Math.min(steps, (corner - distance[slot] + speed[slot] - 1) / speed[slot]));
+            }
+            duration = Math.min(Math.round(steps * ticksPerStep), MAX_TELEPORT_INTERVAL);
+            target = Math.min(distance[slot] + steps * speed[slot], corner);
+        }
+        teleportTarget[slot] = target;
+        teleportDuration[slot] = duration;
+        teleportCountdown[slot] = steps;
+        markDirty(slot, (byte) (DIRTY_MOVE | DIRTY_HEALTH));
+    }
+
+    /**
+     * Damages the enemy. If health goes to or below zero, the enemy will be {@link #kill(int) killed}.
+     * Does nothing if the enemy is dead.
+     * @param slot the enemy's slot
+     * @param amount the amount of health to take away
+     */
+    public void damage(int slot, int amount) {
+        if (alive[slot]) {
+            health[slot] -= amount;
+            if (health[slot] <= 0) {
+                health[slot] = 0;
+                kill(slot);
+            } else {
+                updateHealthDisplay(slot);
+            }
+        }
+    }
+
+    /**
+     * Queues damage for the enemy. Queued damage is applied all at once when it is {@link #resolveDamage() resolved},
+     * so an enemy hit by several towers only has its health (and health display) updated once.
+     * @param slot the enemy's slot
+     * @param amount the amount of damage to deal
+     */
+    public void queueDamage(int slot, int amount) {
+        if (!alive[slot] || amount <= 0) return;
+        if (pendingDamage[slot] == 0) {
+            damaged[damagedCount++] = slot;
+        }
+        pendingDamage[slot] += amount;
+    }
+
+    /**
+     * Applies all queued damage. Enemies whose health reaches zero are killed and their deaths are queued.
+     */
+    public void resolveDamage() {
+        for (int i = 0; i < damagedCount; i++) {
+            int slot = damaged[i];
+            int amount = pendingDamage[slot];
+            pendingDamage[slot] = 0;
+            damage(slot, amount);
+        }
+        damagedCount = 0;
+    }
+
+    /**
+     * @param slot the enemy's slot
+     * @return the enemy's health after its queued damage is resolved
+     */
+    public int getEffectiveHealth(int slot) {
+        return health[slot] - pendingDamage[slot];
+    }
+
+    /**
+     * Increases the enemy's health. Increasing the health of a dead enemy will have no effect.
+     * @param slot the enemy's slot
+     * @param amount the amount of health to restore
+     */
+    public void heal(int slot, int amount) {
+        if (alive[slot]) {
+            health[slot] += amount;
+            updateHealthDisplay(slot);
+        }
+    }
+
+    /**
+     * Kill the enemy and remove its entities at the next flush. Does nothing if the enemy is already dead.
+     * @param slot the enemy's slot
+     * @apiNote death type for the enemy will be {@link DeathType#HEALTH HEALTH}
+     */
+    public void kill(int slot) {
+        kill(slot, DeathType.HEALTH);
+    }
+
+    private void kill(int slot, DeathType type) {
+        if (alive[slot]) {
+            alive[slot] = false;
+            deathType[slot] = type;
+            aliveCount--;
+            effects.remove(slot);
+            removed[removedCount++] = slot;
+            deaths[(deathHead + deathCount++) % deaths.length] = slot;
+        }
+    }
+
+    /**
+     * Removes the oldest unpolled death from the queue and frees its slot for reuse. The slot's
+     * {@link #getDeathType(int) death type} stays readable until a new enemy is spawned.
+     * @return the slot of the dead enemy, or -1 if no enemies have died since the last poll
+     */
+    public int pollDeath() {
+        if (deathCount == 0) return -1;
+        int slot = deaths[deathHead];
+        deathHead = (deathHead + 1) % deaths.length;
+        deathCount--;
+        freeSlots[freeCount++] = slot;
+        return slot;
+    }
+
+    /**
+     * Removes every enemy without queueing their deaths. Their entities are removed at the next flush.
+     */
+    public void clear() {
+        Arrays.fill(alive, false);
+        effects.clear();
+        Arrays.fill(pendingDamage, 0);
+        damagedCount = 0;
+        Arrays.fill(dirtyFlags, (byte) 0);
+        dirtyCount = 0;
+        removedCount = 0;
+        cleared = true;
+        slotCount = 0;
+        aliveCount = 0;
+        freeCount = 0;
+        deathHead = 0;
+        deathCount = 0;
+    }
+
+    /**
+     * Records that the enemy's health display needs to be updated, unless the {@link LoadGovernor} defers health
+     * updates until the enemy's next teleport
+     */
+    private void updateHealthDisplay(int slot) {
+        if (!LoadGovernor.getLevel().defersHealthUpdates()) {
+            markDirty(slot, DIRTY_HEALTH);
+        }
+    }
+
+    private void markDirty(int slot, byte flags) {
+        if (dirtyFlags[slot] == 0) {
+            dirty[dirtyCount++] = slot;
+        }
+        dirtyFlags[slot] |= flags;
+    }
+
+    /**
+     * Applies the path cell changes, teleports, health changes, and removals recorded since the last flush to the
+     * renderer. Enemies whose entities no longer exist are killed, since they must have been killed by a tower. Must
+     * be called on the main thread, before any new enemies are spawned.
+     * <p>
+     * If nobody can see the enemies, only removals are applied and the other changes are dropped. Once
+     * they are visible again, every enemy is moved to where it is and its health is shown.
+     * @param renderer the renderer that shows the store's enemies
+     * @param visible if anyone is close enough to see the enemies
+     */
+    public void flush(EnemyRenderer renderer, boolean visible) {
+        if (cleared) {
+            cleared = false;
+            renderer.clear();
+        }
+        if (!visible) {
+            for (int i = 0; i < dirtyCount; i++) {
+                dirtyFlags[dirty[i]] = 0;
+            }
+            dirtyCount = 0;
+            stale = true;
+        } else if (stale) {
+            stale = false;
+            renderer.refresh();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (alive[slot]) {
+                    teleportTarget[slot] = distance[slot];
+                    teleportDuration[slot] = 0;
+                    markDirty(slot, (byte) (DIRTY_MOVE | DIRTY_HEALTH | DIRTY_CELL));
+                }
+            }
+        }
+        for (int i = 0; i < dirtyCount; i++) {
+            int slot = dirty[i];
+            byte flags = dirtyFlags[slot];
+            dirtyFlags[slot] = 0;
+            if (!alive[slot]) continue;
+            if ((flags & DIRTY_CELL) != 0) {
+                renderer.enterCell(slot, pathIndex[slot]);
+            }
+            if ((flags & DIRTY_MOVE) != 0) {
+                int target = teleportTarget[slot];
+                if (!renderer.move(slot, path.xAt(target), y, path.zAt(target), teleportDuration[slot])) {
+                    kill(slot, DeathType.HEALTH);
+                    continue;
+                }
+            }
+            if ((flags & DIRTY_HEALTH) != 0) {
+                renderer.showHealth(slot, health[slot]);
+            }
+        }
+        dirtyCount = 0;
+        for (int i = 0; i < removedCount; i++) {
+            renderer.remove(removed[i]);
+        }
+        removedCount = 0;
+        renderer.endFlush();
+    }
+
+    /**
+     * @return the number of slots that have been used. Every enemy's slot is less than this value.
+     */
+    public int slotCount() {
+        return slotCount;
+    }
+
+    /**
+     * @return if there are deaths that haven't been {@link #pollDeath() polled} yet
+     */
+    public boolean hasDeaths() {
+        return deathCount > 0;
+    }
+
+    /**
+     * @return the number of living enemies
+     */
+    public int aliveCount() {
+        return aliveCount;
+    }
+
+    /**
+     * Checks if the enemy is alive. If dead, both the {@link #damage(int, int) damage} and
+     * {@link #heal(int, int) heal} operations will do nothing.
+     * @return if the enemy in the slot is alive
+     */
+    public boolean isAlive(int slot) {
+        return alive[slot];
+    }
+
+    /**
+     * @param slot the enemy's slot
+     * @return the enemy's archetype. Stays readable after the enemy dies until a new enemy is spawned in the slot.
+     */
+    public EnemyArchetype getArchetype(int slot) {
+        return archetype[slot];
+    }
+
+    public int getHealth(int slot) {
+        return health[slot];
+    }
+
+    public int getPathIndex(int slot) {
+        return pathIndex[slot];
+    }
+
+    /**
+     * @return the fixed-point distance that the enemy has travelled along the path
+     */
+    public int getDistance(int slot) {
+        return distance[slot];
+    }
+
+    /**
+     * Sets how long a movement step takes. Clients interpolate {@link MovementMode#INTERPOLATED INTERPOLATED}
+     * movement over this many ticks per step.
+     * @param ticksPerStep the number of server ticks per step
+     */
+    public void setTicksPerStep(float ticksPerStep) {
+        this.ticksPerStep = ticksPerStep;
+    }
+
+    public int getSpeed(int slot) {
+        return speed[slot];
+    }
+
+    /**
+     * Sets how far the enemy moves every step without any effects
+     * @param slot the enemy's slot
+     * @param speed the fixed-point distance to move every step
+     */
+    public void setSpeed(int slot, int speed) {
+        baseSpeed[slot] = speed;
+        updateSpeed(slot);
+    }
+
+    /**
+     * Recomputes the enemy's speed from its base speed and its {@link StatusEffects status effects}. If the speed
+     * changes, the entities are teleported on the next step so that they don't drift from the enemy's position.
+     * @param slot the enemy's slot
+     */
+    void updateSpeed(int slot) {
+        int newSpeed = baseSpeed[slot] * effects.getSpeedPercent(slot) / 100;
+        if (newSpeed != speed[slot]) {
+            speed[slot] = newSpeed;
+            teleportCountdown[slot] = 0;
+        }
+    }
+
+    /**
+     * @return the status effects of the enemies in the store
+     */
+    public StatusEffects getEffects() {
+        return effects;
+    }
+
+    public double getX(int slot) {
+        return path.xAt(distance[slot]);
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ(int slot) {
+        return path.zAt(distance[slot]);
+    }
+
+    /**
+     * @return How the enemy died, or null if it is still alive
+     */
+    public @Nullable DeathType getDeathType(int slot) {
+        return deathType[slot];
+    }
+
+    /**
+     * Sets how enemy entities are moved along the path
+     * @param mode the movement mode
+     * @param interval the maximum number of steps between teleports in {@link MovementMode#INTERPOLATED INTERPOLATED}
+     *                 mode (clamped to 1-59)
+     */
+    public static void setMovementMode(MovementMode mode, int interval) {
+        movementMode = mode;
+        teleportInterval = Math.max(1, Math.min(interval, MAX_TELEPORT_INTERVAL));
+    }
+
+    public static MovementMode getMovementMode() {
+        return movementMode;
+    }
+
+    public static int getTeleportInterval() {
+        return teleportInterval;
+    }
+
+    public enum MovementMode {
+        /**
+         * Entities are teleported to the enemy's position every step
+         */
+        STEPPED,
+        /**
+         * Entities are only teleported at corners of the path or every teleport interval and clients interpolate the
+         * movement in between
+         */
+        INTERPOLATED
+    }
+
+    public enum DeathType {
+        /**
+         * Death because health was at or below zero
+         */
+        HEALTH,
+        /**
+         * Death because the end of the path was reached
+         */
+        PATH
+    }
+}
@@ -0,0 +1,97 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.TowerDefense;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The players that a renderer's entities are shown to. While enemies are private, entities are hidden by default and
+ * only shown to the viewers; otherwise every player sees them and the viewers are ignored. Renderers that only show
+ * enemies on their viewers' clients always track the viewers.
+ */
+public class EnemyViewers {
+    private static boolean privateEnemies = true;
+
+    private final ArrayList<Player> players = new ArrayList<>();
+    private final boolean clientSide;
+
+    public EnemyViewers() {
+        this(false);
+    }
+
+    /**
+     * @param clientSide if the enemies only exist on the viewers' clients, so that the viewers are tracked even if
+     *                   enemies aren't private
+     */
+    public EnemyViewers(boolean clientSide) {
+        this.clientSide = clientSide;
+    }
+
+    /**
+     * Replaces the viewers. Does nothing if enemies aren't private (unless they are client-side).
+     * @param viewers the new viewers
+     * @param onAdded called with every player that wasn't a viewer before
+     * @param onRemoved called with every player that is no longer a viewer
+     */
+    public void update(List<Player> viewers, Consumer<Player> onAdded, Consumer<Player> onRemoved) {
+        if (!privateEnemies && !clientSide) return;
+        for (int i = players.size() - 1; i >= 0; i--) {
+            Player player = players.get(i);
+            if (!viewers.contains(player)) {
+                players.remove(i);
+                onRemoved.accept(player);
+            }
+        }
+        for (int i = 0; i < viewers.size(); i++) {
+            Player player = viewers.get(i);
+            if (!players.contains(player)) {
+                players.add(player);
+                onAdded.accept(player);
+            }
+        }
+    }
+
+    /**
+     * Sets up the visibility of a newly acquired entity and shows it to every viewer
+     */
+    public void show(Entity entity) {
+        entity.setVisibleByDefault(!privateEnemies);
+        if (!privateEnemies) return;
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).showEntity(TowerDefense.INSTANCE, entity);
+        }
+    }
+
+    /**
+     * Hides an entity from every viewer before it is released, so that parked entities are hidden from everyone
+     */
+    public void hide(Entity entity) {
+        if (!privateEnemies) return;
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).hideEntity(TowerDefense.INSTANCE, entity);
+        }
+    }
+
+    /**
+     * @return the current viewers
+     */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * @param privateEnemies if enemies are only shown to their layout's viewers instead of every player. Only affects
+     *                       entities acquired afterward.
+     */
+    public static void setPrivateEnemies(boolean privateEnemies) {
+        EnemyViewers.privateEnemies = privateEnemies;
+    }
+
+    public static boolean isPrivateEnemies() {
+        return privateEnemies;
+    }
+}
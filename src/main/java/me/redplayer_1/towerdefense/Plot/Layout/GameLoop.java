@@ -0,0 +1,426 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.TowerDefense;
+import me.redplayer_1.towerdefense.Util.FxChannel;
+import me.redplayer_1.towerdefense.Util.LogLevel;
+import me.redplayer_1.towerdefense.Util.MessageUtils;
+import me.redplayer_1.towerdefense.Util.TimerWheel;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The single server-wide tick driver for all running layouts. Every tick, each layout's {@link SimulationClock} is
+ * advanced, and the layouts run their due simulation steps in round-robin order. Layouts are independent and their
+ * steps don't touch any entities, so they are run in parallel on a pool of simulation threads (or on the main thread
+ * if the pool has a single thread). Afterward, each layout applies what happened during its steps (teleports,
+ * removals, particles, and rewards) on the main thread.
+ * <p>
+ * Layouts are only started while the tick's time budget lasts; the next tick starts with the first layout that
+ * wasn't run, and skipped layouts keep their steps until then. If every layout ran, the next tick starts one layout
+ * further on. Layouts that repeatedly take more than their share of the budget are logged.
+ * Layouts between waves aren't ticked; they {@link #sleep(Layout, int) sleep} on a timer wheel until they are woken.
+ * <p>
+ * Layouts don't spawn enemies themselves. They {@link #requestSpawn(Layout) request} spawns, and every tick the loop
+ * grants up to its spawn budget in round-robin order across layouts, as long as the total number of living enemies
+ * is below the cap.
+ * <p>
+ * The loop also drives the {@link LoadGovernor}, which lowers the quality of every layout while the server is
+ * overloaded, and flushes every player's {@link FxChannel} at the end of the tick.
+ */
+public final class GameLoop {
+    private static final int STATS_WINDOW = 100; // ticks that the tick time statistics are averaged over
+    private static final int OVERRUN_LOG_THRESHOLD = 100; // consecutive overrunning ticks before a layout is logged
+    private static final ArrayList<Layout> layouts = new ArrayList<>();
+    // layouts are only added/removed between ticks so that the phases never see a partially updated list
+    private static final ArrayList<Layout> toAdd = new ArrayList<>();
+    private static final ArrayList<Layout> toRemove = new ArrayList<>();
+    private static final TimerWheel<Layout> sleeping = new TimerWheel<>(64);
+    private static final ArrayDeque<Layout> spawnQueue = new ArrayDeque<>(); // layouts with requested spawns
+    private static int spawnBudget = 8; // spawns granted per tick across all layouts
+    private static int maxLiveEnemies = 1000; // living enemies across all layouts
+    private static long tickBudgetNanos = 10_000_000; // time per tick that layouts may run for
+    private static int cursor = 0; // the index of the layout that the round-robin order starts with
+    private static long deferredLayouts = 0; // times a layout with due steps wasn't run because the budget ran out
+    private static final ArrayList<Layout> batch = new ArrayList<>(); // layouts that run this tick, in run order
+    private static int simulationThreads = 0; // 0 to use one less than the number of cores
+    private static @Nullable ForkJoinPool pool = null; // null if steps run on the main thread
+    private static @Nullable BukkitTask task = null;
+    private static long windowNanos = 0;
+    private static long windowPeakNanos = 0;
+    private static int windowTicks = 0;
+    private static long averageTickNanos = 0;
+    private static long peakTickNanos = 0;
+
+    private GameLoop() { }
+
+    /**
+     * Starts the loop. Does nothing if it is already running.
+     */
+    public static void start() {
+        if (task == null) {
+            int threads = getSimulationThreads();
+            if (threads > 1) {
+                pool = new ForkJoinPool(threads, p -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                    thread.setName("TowerDefense Simulation " + thread.getPoolIndex());
+                    return thread;
+                }, null, false);
+            }
+            task = Bukkit.getScheduler().runTaskTimer(TowerDefense.INSTANCE, GameLoop::tick, 0, 1);
+        }
+    }
+
+    /**
+     * Stops the loop and forgets all registered layouts. Layouts are not {@link Layout#stop() stopped}.
+     */
+    public static void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        layouts.clear();
+        batch.clear();
+        toAdd.clear();
+        toRemove.clear();
+        sleeping.clear();
+        for (Layout layout : spawnQueue) {
+            layout.setSpawnQueued(false);
+        }
+        spawnQueue.clear();
+    }
+
+    /**
+     * Adds a layout to the loop. It will be ticked starting with the next tick.
+     * @param layout the layout to add
+     */
+    static void register(Layout layout) {
+        toRemove.remove(layout);
+        if (!toAdd.contains(layout) && !layouts.contains(layout)) {
+            toAdd.add(layout);
+        }
+    }
+
+    /**
+     * Removes a layout from the loop. It will not be ticked again after the current tick.
+     * @param layout the layout to remove
+     */
+    static void unregister(Layout layout) {
+        sleeping.cancel(layout.getWakeTimer());
+        if (layout.isSpawnQueued()) {
+            spawnQueue.remove(layout);
+            layout.setSpawnQueued(false);
+        }
+        toAdd.remove(layout);
+        if (!toRemove.contains(layout) && layouts.contains(layout)) {
+            toRemove.add(layout);
+        }
+    }
+
+    /**
+     * Stops ticking a layout until a number of ticks have passed. Afterward, the layout is {@link Layout#wake() woken}
+     * and ticked again.
+     * @param layout the layout to put to sleep
+     * @param ticks the number of ticks to sleep for
+     */
+    static void sleep(Layout layout, int ticks) {
+        unregister(layout);
+        sleeping.schedule(layout.getWakeTimer(), ticks);
+    }
+
+    /**
+     * Runs the layouts' due steps in round-robin order starting at the cursor until every layout ran or the budget is
+     * used up. At least one layout is run every tick. Then every layout applies its steps on the main thread.
+     * <p>
+     * Layouts in the pool all start at once, so the budget can't be checked while they run. Instead, the layouts are
+     * only handed to the pool while the time they took the last time they ran (or their share of the budget, if they
+     * haven't run yet) fits in the rest of the budget of every thread. On the main thread, the budget is checked
+     * before each layout is run.
+     */
+    private static void runLayouts(long start, int count) {
+        long deadline = start + tickBudgetNanos;
+        if (cursor >= count) {
+            cursor = 0;
+        }
+        // each thread gets its share of the budget
+        long share = tickBudgetNanos * (pool != null ? pool.getParallelism() : 1) / count;
+        int firstDeferred = -1;
+        if (pool != null) {
+            long available = (deadline - System.nanoTime()) * pool.getParallelism();
+            for (int i = 0; i < count; i++) {
+                int index = (cursor + i) % count;
+                Layout layout = layouts.get(index);
+                if (layout.getPendingSteps() == 0) continue;
+                long estimate = layout.getLastRunNanos() > 0 ? layout.getLastRunNanos() : share;
+                // the first layout always runs so that every tick makes progress
+                if (!batch.isEmpty() && estimate > available) {
+                    deferredLayouts++;
+                    if (firstDeferred == -1) {
+                        firstDeferred = index;
+                    }
+                    continue;
+                }
+                available -= estimate;
+                batch.add(layout);
+            }
+            if (batch.size() > 1) {
+                pool.invoke(new StepTask(0, batch.size()));
+            } else if (batch.size() == 1) {
+                batch.get(0).runSteps();
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                int index = (cursor + i) % count;
+                Layout layout = layouts.get(index);
+                if (layout.getPendingSteps() == 0) continue;
+                if (!batch.isEmpty() && System.nanoTime() >= deadline) {
+                    deferredLayouts++;
+                    if (firstDeferred == -1) {
+                        firstDeferred = index;
+                    }
+                    continue;
+                }
+                layout.runSteps();
+                batch.add(layout);
+            }
+        }
+        // skipped layouts go first next tick so that none of them fall behind for long
+        cursor = firstDeferred != -1 ? firstDeferred : (cursor + 1) % count;
+
+        for (int i = 0; i < batch.size(); i++) {
+            Layout layout = batch.get(i);
+            long unitNanos = layout.getLastRunNanos();
+            if (unitNanos > share) {
+                if (layout.addOverrun() == OVERRUN_LOG_THRESHOLD) {
+                    MessageUtils.logConsole(
+                            "Layout \"" + layout.getName() + "\" " + layout.getOwnerName() + " went over its share of the tick budget for "
+                                    + OVERRUN_LOG_THRESHOLD + " ticks in a row (last took " + String.format("%.3f", unitNanos / 1e6) + "ms)",
+                            LogLevel.WARN
+                    );
+                }
+            } else {
+                layout.resetOverruns();
+            }
+        }
+        batch.clear();
+
+        for (int i = 0; i < count; i++) {
+            layouts.get(i).applySteps();
+        }
+    }
+
+    /**
+     * Runs the steps of a range of layouts in the batch by splitting it until each task has a single layout
+     */
+    private static final class StepTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        StepTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                batch.get(from).runSteps();
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new StepTask(from, mid), new StepTask(mid, to));
+            }
+        }
+    }
+
+    /**
+     * Adds a layout to the back of the spawn queue if it isn't already queued. The layout's requested spawns are
+     * granted through {@link Layout#grantSpawn()}.
+     * @param layout the layout that requested a spawn
+     */
+    static void requestSpawn(Layout layout) {
+        if (!layout.isSpawnQueued()) {
+            layout.setSpawnQueued(true);
+            spawnQueue.addLast(layout);
+        }
+    }
+
+    /**
+     * Grants spawns to the queued layouts one at a time in round-robin order, until the tick's budget or the live
+     * enemy cap is reached
+     */
+    private static void runSpawnQueue() {
+        if (spawnQueue.isEmpty()) return;
+        int live = 0;
+        for (int i = 0; i < layouts.size(); i++) {
+            live += layouts.get(i).getAliveCount();
+        }
+        int budget = Math.min(spawnBudget, maxLiveEnemies - live);
+        for (; budget > 0 && !spawnQueue.isEmpty(); budget--) {
+            Layout layout = spawnQueue.pollFirst();
+            if (layout.grantSpawn()) {
+                spawnQueue.addLast(layout);
+            } else {
+                layout.setSpawnQueued(false);
+            }
+        }
+    }
+
+    private static void wake(Layout layout) {
+        layout.wake();
+        register(layout);
+    }
+
+    private static void tick() {
+        LoadGovernor.tick();
+        if (layouts.isEmpty() && toAdd.isEmpty() && sleeping.size() == 0) {
+            // effects may be queued outside of layouts, such as the editor's sounds
+            FxChannel.flushAll();
+            return;
+        }
+        long start = System.nanoTime();
+        sleeping.advance(GameLoop::wake);
+        if (!toRemove.isEmpty()) {
+            layouts.removeAll(toRemove);
+            toRemove.clear();
+        }
+        if (!toAdd.isEmpty()) {
+            layouts.addAll(toAdd);
+            toAdd.clear();
+        }
+
+        // indexed loops avoid creating an iterator every tick
+        int count = layouts.size();
+        for (int i = 0; i < count; i++) {
+            layouts.get(i).advanceClock(start);
+        }
+        if (count > 0) {
+            runLayouts(start, count);
+        }
+
+        runSpawnQueue();
+        FxChannel.flushAll();
+
+        long elapsed = System.nanoTime() - start;
+        windowNanos += elapsed;
+        windowPeakNanos = Math.max(windowPeakNanos, elapsed);
+        if (++windowTicks >= STATS_WINDOW) {
+            averageTickNanos = windowNanos / windowTicks;
+            peakTickNanos = windowPeakNanos;
+            windowNanos = 0;
+            windowPeakNanos = 0;
+            windowTicks = 0;
+        }
+    }
+
+    /**
+     * @return the number of layouts that are ticked by the loop
+     */
+    public static int getLayoutCount() {
+        return layouts.size();
+    }
+
+    /**
+     * @return the number of simulation steps that the running layouts skipped because they fell too far behind
+     */
+    public static long getDroppedSteps() {
+        long dropped = 0;
+        for (int i = 0; i < layouts.size(); i++) {
+            dropped += layouts.get(i).getDroppedSteps();
+        }
+        return dropped;
+    }
+
+    /**
+     * @return the number of times a layout had its steps deferred to a later tick because the budget ran out
+     */
+    public static long getDeferredLayouts() {
+        return deferredLayouts;
+    }
+
+    /**
+     * Sets the number of threads that layouts' steps run on. Takes effect the next time the loop is started.
+     * @param threads the number of threads (1 to run steps on the main thread, or 0 to use one less than the number
+     *                of cores)
+     */
+    public static void setSimulationThreads(int threads) {
+        simulationThreads = Math.max(0, threads);
+    }
+
+    /**
+     * @return the number of threads that layouts' steps run on
+     */
+    public static int getSimulationThreads() {
+        return simulationThreads > 0 ? simulationThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    /**
+     * @return the number of threads that was set, or 0 if it depends on the number of cores
+     */
+    public static int getConfiguredSimulationThreads() {
+        return simulationThreads;
+    }
+
+    /**
+     * @param nanos the time per tick that layouts may run for
+     */
+    public static void setTickBudgetNanos(long nanos) {
+        tickBudgetNanos = Math.max(nanos, 1);
+    }
+
+    public static long getTickBudgetNanos() {
+        return tickBudgetNanos;
+    }
+
+    /**
+     * @return the number of layouts waiting for spawns to be granted
+     */
+    public static int getSpawnQueueLength() {
+        return spawnQueue.size();
+    }
+
+    /**
+     * @param budget the number of spawns granted per tick across all layouts
+     */
+    public static void setSpawnBudget(int budget) {
+        spawnBudget = Math.max(budget, 1);
+    }
+
+    public static int getSpawnBudget() {
+        return spawnBudget;
+    }
+
+    /**
+     * @param max the number of living enemies across all layouts above which no spawns are granted
+     */
+    public static void setMaxLiveEnemies(int max) {
+        maxLiveEnemies = Math.max(max, 1);
+    }
+
+    public static int getMaxLiveEnemies() {
+        return maxLiveEnemies;
+    }
+
+    /**
+     * @return the average time (in nanoseconds) a tick of the loop took over the last completed stats window
+     */
+    public static long getAverageTickNanos() {
+        return averageTickNanos;
+    }
+
+    /**
+     * @return the longest time (in nanoseconds) a tick of the loop took over the last completed stats window
+     */
+    public static long getPeakTickNanos() {
+        return peakTickNanos;
+    }
+}
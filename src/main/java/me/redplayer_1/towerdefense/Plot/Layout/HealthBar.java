@@ -0,0 +1,55 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * Renders the health shown above enemies. Components are built directly (without parsing MiniMessage) and cached for
+ * common health values, so rendering a health bar usually doesn't create any objects.
+ */
+public final class HealthBar {
+    private static final int CACHE_SIZE = 1024; // health values below this are cached
+    private static final Component HEART = Component.text("❤", NamedTextColor.DARK_RED);
+    private static final Component[] cache = new Component[CACHE_SIZE];
+    private static final int CROWD_BAR_LENGTH = 10; // segments in a crowd's health bar
+    private static final Component[] crowdBars = new Component[CROWD_BAR_LENGTH + 1]; // by number of filled segments
+
+    private HealthBar() { }
+
+    /**
+     * @param health the health to show
+     * @return the component showing the health (equivalent to {@code <red>health</red><dark_red>❤</dark_red>})
+     */
+    public static Component of(int health) {
+        if (health < 0 || health >= CACHE_SIZE) {
+            return create(health);
+        }
+        Component component = cache[health];
+        if (component == null) {
+            component = create(health);
+            cache[health] = component;
+        }
+        return component;
+    }
+
+    /**
+     * @param count the number of enemies in the crowd
+     * @param health the combined health of the crowd's enemies
+     * @param maxHealth the combined starting health of the crowd's enemies
+     * @return the component showing the crowd's size, a bar of its remaining health, and its combined health
+     */
+    public static Component ofCrowd(int count, int health, int maxHealth) {
+        int filled = maxHealth > 0 ? Math.max(0, Math.min(CROWD_BAR_LENGTH, (int) Math.ceil((double) health * CROWD_BAR_LENGTH / maxHealth))) : 0;
+        Component bar = crowdBars[filled];
+        if (bar == null) {
+            bar = Component.text("|".repeat(filled), NamedTextColor.RED)
+                    .append(Component.text("|".repeat(CROWD_BAR_LENGTH - filled), NamedTextColor.DARK_GRAY));
+            crowdBars[filled] = bar;
+        }
+        return Component.text("x" + count + " ", NamedTextColor.GOLD).append(bar).append(Component.space()).append(of(health));
+    }
+
+    private static Component create(int health) {
+        return Component.text(health, NamedTextColor.RED).append(HEART);
+    }
+}
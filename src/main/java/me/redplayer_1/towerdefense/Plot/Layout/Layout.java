@@ -3,40 +3,79 @@ package me.redplayer_1.towerdefense.Plot.Layout;
 import me.redplayer_1.towerdefense.Geometry.BlockMesh;
 import me.redplayer_1.towerdefense.Geometry.Direction;
 import me.redplayer_1.towerdefense.Geometry.Vector3;
+import me.redplayer_1.towerdefense.Plot.Enemy.EnemyArchetype;
 import me.redplayer_1.towerdefense.Plot.Tower.Tower;
 import me.redplayer_1.towerdefense.TDPlayer;
 import me.redplayer_1.towerdefense.TowerDefense;
+import me.redplayer_1.towerdefense.Util.FxChannel;
 import me.redplayer_1.towerdefense.Util.LogLevel;
 import me.redplayer_1.towerdefense.Util.MessageUtils;
+import me.redplayer_1.towerdefense.Util.TimerWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.InvalidConfigurationException;
-import org.bukkit.entity.BlockDisplay;
-import org.bukkit.entity.EntityType;
-import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 
 public class Layout {
     public static final int SIZE = 11; // in blocks (including border)
     public static String defaultLayout = null;
+    private static final int WAVE_DELAY = 20; // ticks between the end of a wave and the start of the next one
+    private static final double ENEMY_HEIGHT = .6; // in blocks
+    private static final int TIMER_WHEEL_SIZE = 256; // buckets in the tower cooldown wheel
+    private static final double PARTICLE_SPACING = .15; // blocks between attack particles at full quality
 
     private final String name;
     private final Vector3 startLoc; // relative to bottomLeft
     private final BlockMesh mesh; // the prebuilt blocks in the layout
     private final Grid grid;
     private final Direction[] path;
-    private final LinkedList<Enemy> enemies;
+    private final CompiledPath compiledPath;
+    private final EnemyStore enemies;
+    private final DisplayEnemyRenderer displayRenderer;
+    private final CrowdRenderer crowdRenderer;
+    private final BlockEnemyRenderer blockRenderer;
+    private EnemyRenderer renderer; // selected by the render mode when a wave starts
+    private final CoverageIndex coverage;
+    private final DisplayPool displayPool;
+    private final BeamBuffer beams = new BeamBuffer(); // attacks made during the steps, shown in the apply phase
+    // rare events from the steps that use the Bukkit API, run in the apply phase
+    private final ArrayList<Runnable> mainThreadTasks = new ArrayList<>();
+    private final ArrayList<Player> viewers = new ArrayList<>(); // the owner and the plot's online visitors
+    private final double centerX;
+    private final double centerZ;
+    private int pendingCoins = 0; // coins earned during the steps, given in the apply phase
+    private @Nullable RuntimeException stepFailure = null; // thrown by the steps, handled in the apply phase
+    private long lastRunNanos = 0; // how long the layout's steps took the last time they ran
     private final LinkedList<Tower> towers;
+    private final TimerWheel<Tower> towerTimers; // expires towers' attack cooldowns
+    private final ArrayList<Tower> readyTowers = new ArrayList<>(); // armed towers to attack with this step
+    private final Consumer<Tower> onCooldownExpired = this::onCooldownExpired;
     private final WaveManager waveManager;
-    private BukkitTask spawner = null;
-    private BukkitTask attacker = null;
-    private float enemyTickRate;
+    private @Nullable TDPlayer owner = null;
+    private State state = State.IDLE;
+    private final TimerWheel.Timer<Layout> wakeTimer = new TimerWheel.Timer<>(this);
+    private SimulationClock clock;
+    private int pendingSteps = 0; // simulation steps that are due but haven't been run
+    private int overruns = 0; // consecutive ticks the layout took more than its share of the GameLoop's budget
+    private int spawnInterval; // steps between spawns
+    private int spawnCooldown; // steps until the spawner phase runs again
+    private int requested; // spawns requested from the GameLoop during the current wave
+    private int spawned; // enemies spawned during the current wave
+    private boolean spawnQueued = false; // if the layout is in the GameLoop's spawn queue
+    private int killed; // enemies killed during the current wave
+    private long idleTowerSteps = 0; // steps the attack phase was skipped for
+    private float enemyTickRate; // simulation steps per second (0 for the default rate)
+    private RenderMode renderMode = RenderMode.DISPLAY;
 
     /**
      * Creates a new layout.
@@ -59,7 +98,19 @@ public class Layout {
         MessageUtils.logConsole("LAYOUT CREATE -> got wave #" + wave, LogLevel.DEBUG);
         waveManager = new WaveManager(wave);
         towers = new LinkedList<>();
-        enemies = new LinkedList<>();
+        towerTimers = new TimerWheel<>(TIMER_WHEEL_SIZE);
+        Location start = getEnemyStart();
+        displayPool = new DisplayPool(mesh.getBottomLeft().add(0, -2, 0));
+        compiledPath = new CompiledPath(path, start.getX(), start.getZ());
+        enemies = new EnemyStore(compiledPath, start.getY());
+        displayRenderer = new DisplayEnemyRenderer(displayPool, start.getWorld(), ENEMY_HEIGHT);
+        crowdRenderer = new CrowdRenderer(displayPool, compiledPath, start.getWorld(), enemies.getY(), ENEMY_HEIGHT);
+        blockRenderer = new BlockEnemyRenderer(compiledPath, start.getWorld(), enemies.getY());
+        renderer = displayRenderer;
+        centerX = mesh.getBottomLeft().getBlockX() + SIZE / 2.0;
+        centerZ = mesh.getBottomLeft().getBlockZ() - SIZE / 2.0 + 1;
+        coverage = new CoverageIndex(path.length);
+        clock = new SimulationClock(enemyTickRate);
     }
 
     /**
@@ -80,92 +131,438 @@ public class Layout {
         }
     }
 
+    /**
+     * Starts spawning enemies and attacking them with the layout's towers. The layout is ticked by the
+     * {@link GameLoop} until it is {@link #stop() stopped}, running {@link #getEnemyTickRate() enemyTickRate}
+     * simulation steps per second regardless of the server's TPS.
+     * @param parent the player that owns the layout
+     */
     public void start(TDPlayer parent) {
-        AtomicInteger killed = new AtomicInteger();
+        owner = parent;
+        clock = new SimulationClock(enemyTickRate);
+        enemies.setTicksPerStep(clock.getTicksPerStep());
+        spawnInterval = clock.stepsFor(waveManager.getSpawnInterval());
+        pendingSteps = 0;
+        overruns = 0;
+        requested = 0;
+        spawned = 0;
+        killed = 0;
+        spawnCooldown = 0;
+        idleTowerSteps = 0;
+        selectRenderer();
+        state = State.SPAWNING;
         MessageUtils.log(parent.getPlayer(), "Started spawner @ wave #" + waveManager.getWave() + " & w/ " + towers.size() + " towers", LogLevel.DEBUG);
-        spawner = Bukkit.getScheduler().runTaskTimer(TowerDefense.INSTANCE, () -> {
-            if (enemies.size() < waveManager.getEnemyCount()) {
-                Enemy enemy = spawnEnemy();
-                enemy.setDeathHandler((e) -> {
-                    if (e.getDeathType() == Enemy.DeathType.PATH) {
-                        // wave failed because enemy reached the end
-                        waveManager.setWave(waveManager.getWave() - 1);
-                        killAllEnemies(false);
-                        killed.set(0);
-                        MessageUtils.log(parent.getPlayer(), "Wave failed! Sent back to wave " + waveManager.getWave(), LogLevel.NOTICE);
-                        parent.updateScoreboard();
-                    } else {
-                        killed.incrementAndGet();
-                        parent.giveMoney(waveManager.getEnemyCoinYield());
-                    }
-                });
-                enemies.add(enemy);
-            } else if (killed.get() >= waveManager.getEnemyCount()) {
-                MessageUtils.log(parent.getPlayer(), "Wave " + waveManager.getWave() + " completed!", LogLevel.SUCCESS);
-                killAllEnemies(true);
-                killed.set(0);
-                waveManager.next();
-                parent.updateScoreboard();
+        GameLoop.register(this);
+    }
+
+    /**
+     * Advances the layout's simulation clock. Called by the {@link GameLoop} once every server tick. Steps that
+     * weren't run in earlier ticks are kept, up to the clock's catch-up limit.
+     * @param nowNanos the current time (from {@link System#nanoTime()})
+     * @return the number of simulation steps that are due
+     */
+    int advanceClock(long nowNanos) {
+        if (state == State.IDLE) {
+            pendingSteps = 0;
+        } else {
+            pendingSteps += clock.advance(nowNanos);
+            int max = SimulationClock.getMaxCatchUpSteps();
+            if (pendingSteps > max) {
+                clock.drop(pendingSteps - max);
+                pendingSteps = max;
             }
-        }, 0, 20);
+        }
+        return pendingSteps;
+    }
 
-        attacker = Bukkit.getScheduler().runTaskTimer(TowerDefense.INSTANCE, () -> {
-            for (Tower tower : towers) {
-                if (tower.canAttack()) {
-                    tower.attack(enemies, parent.getPlayer(), .15);
+    /**
+     * @return the number of simulation steps that are due but haven't been run
+     */
+    int getPendingSteps() {
+        return pendingSteps;
+    }
+
+    /**
+     * Runs every due simulation step. Each step runs the spawner, movement, and attack phases in order. The steps
+     * only change the layout's own state and don't use the Bukkit API, so the {@link GameLoop} may run different
+     * layouts' steps in parallel off the main thread; what happened is shown afterward by {@link #applySteps()}.
+     */
+    void runSteps() {
+        long start = System.nanoTime();
+        try {
+            for (; pendingSteps > 0; pendingSteps--) {
+                tickSpawner();
+                tickEnemies();
+                tickTowers();
+            }
+        } catch (RuntimeException e) {
+            stepFailure = e;
+            pendingSteps = 0;
+        }
+        lastRunNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Apply phase, called by the {@link GameLoop} on the main thread every tick after the steps of every layout ran.
+     * Flushes the entity changes, attack beams, rewards, and wave events that the steps recorded, and requests
+     * spawns that came due from the loop's spawn queue.
+     */
+    void applySteps() {
+        if (stepFailure != null) {
+            RuntimeException e = stepFailure;
+            stepFailure = null;
+            MessageUtils.logConsole("Layout \"" + name + "\" " + getOwnerName() + " was stopped after an error in its simulation: " + e, LogLevel.ERROR);
+            TowerDefense.INSTANCE.getLogger().log(Level.SEVERE, "Simulation error in layout \"" + name + "\"", e);
+            stop();
+            return;
+        }
+        boolean visible = updateViewers();
+        enemies.flush(renderer, visible);
+        if (visible && owner != null && beams.size() > 0) {
+            beams.spawn(FxChannel.of(owner.getPlayer()), LoadGovernor.getLevel().getParticleStride());
+        } else {
+            beams.clear();
+        }
+        if (pendingCoins > 0 && owner != null) {
+            owner.giveMoney(pendingCoins);
+        }
+        pendingCoins = 0;
+        for (int i = 0; i < mainThreadTasks.size(); i++) {
+            mainThreadTasks.get(i).run();
+        }
+        mainThreadTasks.clear();
+        if (state == State.SPAWNING && spawned < requested) {
+            GameLoop.requestSpawn(this);
+        }
+    }
+
+    /**
+     * Collects the online players that may see the layout's enemies and passes them to the renderer. While enemies are
+     * private, these are the owner and the visitors of the owner's plot; otherwise, they are every player within view
+     * distance of the layout.
+     * @return if any of them is within view distance of the layout
+     */
+    private boolean updateViewers() {
+        viewers.clear();
+        World world = mesh.getBottomLeft().getWorld();
+        if (!EnemyViewers.isPrivateEnemies()) {
+            for (Player player : world.getPlayers()) {
+                if (isNearby(player, world)) {
+                    viewers.add(player);
+                }
+            }
+            renderer.setViewers(viewers);
+            return !viewers.isEmpty();
+        }
+        if (owner != null) {
+            viewers.add(owner.getPlayer());
+            for (UUID id : owner.getPlot().getVisitors()) {
+                Player visitor = Bukkit.getPlayer(id);
+                if (visitor != null) {
+                    viewers.add(visitor);
                 }
-                tower.tick();
             }
-        }, 0, 1);
+        }
+        renderer.setViewers(viewers);
+        for (int i = 0; i < viewers.size(); i++) {
+            if (isNearby(viewers.get(i), world)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Stops the spawning of entities and kills existing ones.
-     * @apiNote the enemy's death handler will not be triggered when it is killed by this function
+     * @return if the player is within view distance of the layout
      */
-    public void stop() {
-        if (spawner != null) {
-            spawner.cancel();
-            spawner = null;
+    private boolean isNearby(Player player, World world) {
+        if (player.getWorld() != world) return false;
+        Location loc = player.getLocation();
+        double range = player.getViewDistance() * 16 + SIZE;
+        double dx = loc.getX() - centerX;
+        double dz = loc.getZ() - centerZ;
+        return dx * dx + dz * dz <= range * range;
+    }
+
+    /**
+     * @return how long the layout's steps took the last time they ran
+     */
+    long getLastRunNanos() {
+        return lastRunNanos;
+    }
+
+    /**
+     * Counts a tick in which the layout took more than its share of the {@link GameLoop}'s budget
+     * @return the number of consecutive ticks the layout went over its share
+     */
+    int addOverrun() {
+        return ++overruns;
+    }
+
+    void resetOverruns() {
+        overruns = 0;
+    }
+
+    /**
+     * @return a description of the layout's owner for logging
+     */
+    String getOwnerName() {
+        return owner != null ? "(owned by " + owner.getPlayer().getName() + ")" : "(not running)";
+    }
+
+    /**
+     * @return the number of simulation steps that were skipped because the layout fell too far behind
+     */
+    public long getDroppedSteps() {
+        return clock.getDroppedSteps();
+    }
+
+    /**
+     * Called by the {@link GameLoop} when the layout wakes up after a {@link State#WAVE_COMPLETE completed} wave.
+     * Starts spawning the next wave.
+     */
+    void wake() {
+        if (state != State.WAVE_COMPLETE) return;
+        // the time spent sleeping isn't simulated
+        clock.reset();
+        spawnInterval = clock.stepsFor(waveManager.getSpawnInterval());
+        requested = 0;
+        spawned = 0;
+        killed = 0;
+        spawnCooldown = 0;
+        selectRenderer();
+        state = State.SPAWNING;
+    }
+
+    /**
+     * Selects the renderer of the layout's {@link RenderMode}. Only called when a wave starts, while no enemies are
+     * shown.
+     */
+    private void selectRenderer() {
+        renderer = switch (renderMode) {
+            case DISPLAY -> waveManager.isEndless() ? crowdRenderer : displayRenderer;
+            case CROWD -> crowdRenderer;
+            case BLOCK -> blockRenderer;
+        };
+    }
+
+    /**
+     * @return the timer that the {@link GameLoop} wakes the layout with
+     */
+    TimerWheel.Timer<Layout> getWakeTimer() {
+        return wakeTimer;
+    }
+
+    /**
+     * Spawner phase of a simulation step. Requests a spawn once every
+     * {@link WaveManager#getSpawnInterval() spawn interval} while the layout is {@link State#SPAWNING spawning}. The
+     * requests are passed to the loop's spawn queue in the apply phase.
+     */
+    private void tickSpawner() {
+        if (state != State.SPAWNING || requested >= waveManager.getEnemyCount() || spawnCooldown-- > 0) return;
+        spawnCooldown = LoadGovernor.getLevel().scaleSpawnInterval(spawnInterval) - 1;
+        requested++;
+    }
+
+    /**
+     * Called by the {@link GameLoop} when the layout's turn in the spawn queue comes up. Spawns an enemy, and once
+     * the whole wave is spawned, the layout starts {@link State#FIGHTING fighting}.
+     * @return if the layout has more requested spawns waiting
+     */
+    boolean grantSpawn() {
+        if (state != State.SPAWNING || spawned >= requested) return false;
+        spawnEnemy();
+        spawned++;
+        if (spawned >= waveManager.getEnemyCount()) {
+            state = State.FIGHTING;
+        }
+        return spawned < requested;
+    }
+
+    boolean isSpawnQueued() {
+        return spawnQueued;
+    }
+
+    void setSpawnQueued(boolean spawnQueued) {
+        this.spawnQueued = spawnQueued;
+    }
+
+    /**
+     * @return the number of living enemies on the layout
+     */
+    public int getAliveCount() {
+        return enemies.aliveCount();
+    }
+
+    /**
+     * Movement phase of a simulation step. Moves every enemy along the path and handles the deaths of enemies that
+     * were killed since the last step. Does nothing while no enemies are alive.
+     */
+    private void tickEnemies() {
+        if (!isActive()) return;
+        enemies.getEffects().tick();
+        for (int slot = 0; slot < enemies.slotCount(); slot++) {
+            if (!enemies.isAlive(slot)) continue;
+            int pathIndex = enemies.getPathIndex(slot);
+            enemies.move(slot);
+            if (!enemies.isAlive(slot)) continue;
+            if (enemies.getPathIndex(slot) != pathIndex) {
+                coverage.move(slot, enemies.getPathIndex(slot), enemies.getDistance(slot));
+            } else {
+                coverage.update(slot, enemies.getDistance(slot));
+            }
         }
-        if (attacker != null) {
-            attacker.cancel();
-            attacker = null;
+        handleDeaths();
+    }
+
+    /**
+     * Polls the deaths of enemies and completes or fails the wave when it is over. Rewards and messages are given in
+     * the apply phase.
+     */
+    private void handleDeaths() {
+        TDPlayer owner = this.owner;
+        assert owner != null;
+        boolean waveFailed = false;
+        int slot;
+        while ((slot = enemies.pollDeath()) != -1) {
+            coverage.remove(slot);
+            if (enemies.getDeathType(slot) == EnemyStore.DeathType.PATH) {
+                waveFailed = true;
+            } else {
+                killed++;
+                pendingCoins += enemies.getArchetype(slot).getCoinYield(waveManager.getEnemyCoinYield());
+            }
+        }
+        if (waveFailed) {
+            // wave failed because an enemy reached the end
+            waveManager.setWave(waveManager.getWave() - 1);
+            int wave = waveManager.getWave();
+            mainThreadTasks.add(() -> MessageUtils.log(owner.getPlayer(), "Wave failed! Sent back to wave " + wave, LogLevel.NOTICE));
+            endWave();
+        } else if (state == State.FIGHTING && killed >= waveManager.getEnemyCount()) {
+            int wave = waveManager.getWave();
+            mainThreadTasks.add(() -> MessageUtils.log(owner.getPlayer(), "Wave " + wave + " completed!", LogLevel.SUCCESS));
+            if (waveManager.getCompletionCoinYield() > 0) {
+                pendingCoins += waveManager.getCompletionCoinYield();
+            }
+            waveManager.next();
+            endWave();
         }
-        killAllEnemies(false);
     }
 
-    private void killAllEnemies(boolean triggerHandler) {
-        while (!enemies.isEmpty()) {
-            Enemy toRemove = enemies.removeFirst();
-            if (!triggerHandler) {
-                toRemove.setDeathHandler(null);
+    /**
+     * Clears the wave's enemies and sleeps until the next wave starts (from the apply phase)
+     */
+    private void endWave() {
+        TDPlayer owner = this.owner;
+        assert owner != null;
+        killAllEnemies();
+        state = State.WAVE_COMPLETE;
+        mainThreadTasks.add(() -> {
+            owner.updateScoreboard();
+            GameLoop.sleep(this, WAVE_DELAY);
+        });
+    }
+
+    /**
+     * @return if the layout is spawning or fighting enemies and at least one is alive or waiting to be handled
+     */
+    private boolean isActive() {
+        return (state == State.SPAWNING || state == State.FIGHTING) && (enemies.aliveCount() > 0 || enemies.hasDeaths());
+    }
+
+    /**
+     * Attack phase of a simulation step. Only towers whose cooldown expired this step or that were waiting for
+     * enemies to come into range are visited. They attack, and their cooldown is scheduled on the timer wheel again.
+     * The hits of all towers are collected and resolved at once, followed by the resulting deaths.
+     */
+    private void tickTowers() {
+        if (state != State.SPAWNING && state != State.FIGHTING) return;
+        if (enemies.aliveCount() == 0) {
+            // cooldowns are caught up once there are enemies to attack again
+            idleTowerSteps++;
+            return;
+        }
+        towerTimers.advance(idleTowerSteps + 1, onCooldownExpired);
+        idleTowerSteps = 0;
+        coverage.drainWoken(readyTowers);
+        for (int i = 0; i < readyTowers.size(); i++) {
+            Tower tower = readyTowers.get(i);
+            // a tower may have been woken more than once or lost its enemies again
+            if (tower.isArmed() && tower.hasEnemiesInRange()) {
+                tower.attack(enemies, coverage, beams);
+                tower.setArmed(false);
+                towerTimers.schedule(tower.getCooldownTimer(), tower.getAttackDelay());
             }
-            toRemove.kill();
+        }
+        readyTowers.clear();
+        enemies.resolveDamage();
+        handleDeaths();
+    }
+
+    private void onCooldownExpired(Tower tower) {
+        // towers without enemies in range stay armed until the coverage index wakes them
+        tower.setArmed(true);
+        if (tower.hasEnemiesInRange()) {
+            readyTowers.add(tower);
         }
     }
 
     /**
-     * @return if the spawner task is running
+     * Stops the spawning of entities and kills existing ones.
+     * @apiNote killed enemies will not give the owner any coins
+     */
+    public void stop() {
+        GameLoop.unregister(this);
+        state = State.IDLE;
+        owner = null;
+        killAllEnemies();
+        enemies.flush(renderer, false);
+        beams.clear();
+        mainThreadTasks.clear();
+        pendingCoins = 0;
+    }
+
+    private void killAllEnemies() {
+        enemies.clear();
+        coverage.clear();
+    }
+
+    /**
+     * @return if the layout is started and ticked by the {@link GameLoop}
      */
     public boolean isSpawnerEnabled() {
-        return spawner != null && !spawner.isCancelled();
+        return owner != null;
+    }
+
+    /**
+     * Spawn a new enemy on the layout
+     * @return the new enemy's slot in the layout's {@link EnemyStore}
+     */
+    private int spawnEnemy() {
+        return spawnEnemy(waveManager.getArchetype(spawned));
     }
 
     /**
      * Spawn a new enemy on the layout
+     * @param archetype the type of enemy to spawn
+     * @return the new enemy's slot in the layout's {@link EnemyStore}
      */
-    private Enemy spawnEnemy() {
+    private int spawnEnemy(EnemyArchetype archetype) {
+        int health = archetype.getHealth(waveManager.getEnemyHealth());
+        int slot = enemies.spawn(archetype, health);
+        renderer.spawn(slot, archetype, enemies.getPathIndex(slot), enemies.getX(slot), enemies.getY(), enemies.getZ(slot), health);
+        coverage.add(slot, 0, 0);
+        return slot;
+    }
+
+    /**
+     * @return the location that enemies are spawned at
+     */
+    private Location getEnemyStart() {
         Location bL = mesh.getBottomLeft();
-        BlockDisplay display = (BlockDisplay) bL.getWorld().spawnEntity(bL, EntityType.BLOCK_DISPLAY);
-        display.setBlock(Material.SMOOTH_STONE_SLAB.createBlockData());
-        return new Enemy(
-                display,
-                .6,
-                waveManager.getEnemyHealth(),
-                startLoc.toLocation(mesh.getBottomLeft().getWorld()).add(mesh.getBottomLeft()).add(0, 1, 0),
-                path
-        );
+        assert bL != null;
+        return startLoc.toLocation(bL.getWorld()).add(bL).add(0, 1, 0);
     }
 
     /**
@@ -174,11 +571,11 @@ public class Layout {
      */
     public void remove() {
         stop();
+        displayPool.clear();
         mesh.destroy();
         for (Tower tower : towers) {
             tower.getMesh().destroy();
         }
-        killAllEnemies(false);
     }
 
     /**
@@ -194,8 +591,12 @@ public class Layout {
         if (relLoc.y == 1 && towerMesh.canPlace(location) && grid.canAdd(towerItem, relLoc.x, relLoc.z)) {
             towers.add(tower);
             grid.add(towerItem, relLoc.x, relLoc.z);
-            tower.computeAccessiblePathIndices(relLoc.x, relLoc.z, grid);
+            // the mesh is placed first so that the tower's beams can be cached
             towerMesh.place(location);
+            tower.computeAccessiblePathIndices(relLoc.x, relLoc.z, grid, compiledPath, enemies.getY(), PARTICLE_SPACING);
+            coverage.addTower(tower);
+            tower.setArmed(false);
+            towerTimers.schedule(tower.getCooldownTimer(), tower.getAttackDelay());
             MessageUtils.logConsole("tower placed @ " + MessageUtils.locationToString(location) + ", " + relLoc, LogLevel.DEBUG);
             return true;
         }
@@ -237,6 +638,10 @@ public class Layout {
             towerMesh.setBottomLeft(mesh.fromRelativeLocation(new Vector3(item.gridX, 1, item.gridY), location.getWorld()));
             towerMesh.destroy();
             towers.remove(item.getTower());
+            coverage.removeTower(item.getTower());
+            towerTimers.cancel(item.getTower().getCooldownTimer());
+            item.getTower().setArmed(false);
+            item.getTower().clearBeamCache();
             return item.getTower();
         }
         return null;
@@ -262,10 +667,46 @@ public class Layout {
         return grid;
     }
 
+    /**
+     * @return the layout's current state
+     */
+    public State getState() {
+        return state;
+    }
+
     public int getWave() {
         return waveManager.getWave();
     }
 
+    /**
+     * @return the number of simulation steps per second (0 for the {@link SimulationClock#DEFAULT_STEP_RATE default})
+     */
+    public float getEnemyTickRate() {
+        return enemyTickRate;
+    }
+
+    /**
+     * Sets the number of simulation steps per second. Takes effect the next time the layout is started.
+     * @param enemyTickRate the step rate (0 for the {@link SimulationClock#DEFAULT_STEP_RATE default})
+     */
+    public void setEnemyTickRate(float enemyTickRate) {
+        this.enemyTickRate = enemyTickRate;
+    }
+
+    /**
+     * @return how the layout's enemies are shown
+     */
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    /**
+     * Sets how the layout's enemies are shown. Takes effect when the next wave starts.
+     */
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = renderMode;
+    }
+
     /**
      * Serializes this layout into a new child section (with this layout's name) of the root section
      * @param rootSection the section to store the serialized data in
@@ -276,6 +717,7 @@ public class Layout {
         mesh.serialize(section, "blockMesh");
         section.set("path", Arrays.stream(path).map(Enum::name).toList());
         section.set("tickRate", enemyTickRate);
+        section.set("renderMode", renderMode.name());
         // don't serialize wave because it is saved with the player
     }
 
@@ -305,6 +747,13 @@ public class Layout {
         if (section.contains("tickRate")) {
             layout.enemyTickRate = Float.parseFloat(section.getString("tickRate", "0"));
         }
+        if (section.contains("renderMode")) {
+            try {
+                layout.renderMode = RenderMode.valueOf(section.getString("renderMode", "").toUpperCase());
+            } catch (IllegalArgumentException e) {
+                MessageUtils.logConsole("Invalid render mode for layout \"" + section.getName() + "\", using " + layout.renderMode.name(), LogLevel.WARN);
+            }
+        }
         return layout;
     }
 
@@ -321,12 +770,76 @@ public class Layout {
                 MessageUtils.logConsole("Invalid default layout \"" + defaultLayoutName + "\" in config", LogLevel.ERROR);
             }
         }
+        DisplayPool.setMaxSize(section.getInt("enemy_display_pool_size", DisplayPool.getMaxSize()));
+        SimulationClock.setMaxCatchUpSteps(section.getInt("max_catch_up_steps", SimulationClock.getMaxCatchUpSteps()));
+        GameLoop.setSpawnBudget(section.getInt("spawn_budget_per_tick", GameLoop.getSpawnBudget()));
+        GameLoop.setMaxLiveEnemies(section.getInt("max_live_enemies", GameLoop.getMaxLiveEnemies()));
+        FxChannel.setParticleBudget(section.getInt("fx_particle_budget", FxChannel.getParticleBudget()));
+        EnemyViewers.setPrivateEnemies(section.getBoolean("private_enemies", EnemyViewers.isPrivateEnemies()));
+        // left blank to depend on the number of cores
+        GameLoop.setSimulationThreads(section.getInt("simulation_threads", 0));
+        GameLoop.setTickBudgetNanos((long) (section.getDouble("tick_budget_ms", GameLoop.getTickBudgetNanos() / 1e6) * 1e6));
+        LoadGovernor.setEnabled(section.getBoolean("load_governor_enabled", LoadGovernor.isEnabled()));
+        LoadGovernor.setThresholds(
+                section.getDouble("load_degrade_mspt", LoadGovernor.getDegradeMspt()),
+                section.getDouble("load_recover_mspt", LoadGovernor.getRecoverMspt())
+        );
+        String movementMode = section.getString("enemy_movement_mode", EnemyStore.getMovementMode().name());
+        try {
+            EnemyStore.setMovementMode(
+                    EnemyStore.MovementMode.valueOf(movementMode),
+                    section.getInt("enemy_teleport_interval", EnemyStore.getTeleportInterval())
+            );
+        } catch (IllegalArgumentException e) {
+            MessageUtils.logConsole("Invalid enemy movement mode \"" + movementMode + "\" in config", LogLevel.WARN);
+        }
     }
 
     public static void saveConfigValues(ConfigurationSection section) {
         if (defaultLayout != null) {
             section.set("default_layout", defaultLayout);
         }
+        section.set("enemy_display_pool_size", DisplayPool.getMaxSize());
+        section.set("max_catch_up_steps", SimulationClock.getMaxCatchUpSteps());
+        section.set("spawn_budget_per_tick", GameLoop.getSpawnBudget());
+        section.set("max_live_enemies", GameLoop.getMaxLiveEnemies());
+        section.set("fx_particle_budget", FxChannel.getParticleBudget());
+        section.set("private_enemies", EnemyViewers.isPrivateEnemies());
+        if (GameLoop.getConfiguredSimulationThreads() > 0) {
+            section.set("simulation_threads", GameLoop.getConfiguredSimulationThreads());
+        }
+        section.set("tick_budget_ms", GameLoop.getTickBudgetNanos() / 1e6);
+        section.set("load_governor_enabled", LoadGovernor.isEnabled());
+        section.set("load_degrade_mspt", LoadGovernor.getDegradeMspt());
+        section.set("load_recover_mspt", LoadGovernor.getRecoverMspt());
+        section.set("enemy_movement_mode", EnemyStore.getMovementMode().name());
+        section.set("enemy_teleport_interval", EnemyStore.getTeleportInterval());
+    }
+
+    /**
+     * How a layout's enemies are shown
+     */
+    public enum RenderMode {
+        /** one display per enemy, or crowds during endless waves ({@link DisplayEnemyRenderer}) */
+        DISPLAY,
+        /** one display per path block with enemies ({@link CrowdRenderer}) */
+        CROWD,
+        /** client-side fake blocks sent to the layout's viewers, without any entities ({@link BlockEnemyRenderer}) */
+        BLOCK
+    }
+
+    /**
+     * The states of a running layout. Only spawning and fighting layouts are ticked by the {@link GameLoop}.
+     */
+    public enum State {
+        /** the layout isn't started */
+        IDLE,
+        /** enemies of the current wave are being spawned */
+        SPAWNING,
+        /** the whole wave was spawned and enemies are still alive */
+        FIGHTING,
+        /** the wave is over and the layout is sleeping until the next wave starts */
+        WAVE_COMPLETE
     }
 
     public static class PathItem extends GridItem {
@@ -4,6 +4,7 @@ import me.redplayer_1.towerdefense.Exception.NodeOutOfBoundsException;
 import me.redplayer_1.towerdefense.Geometry.BlockMesh;
 import me.redplayer_1.towerdefense.Geometry.Direction;
 import me.redplayer_1.towerdefense.Geometry.Vector3;
+import me.redplayer_1.towerdefense.Util.FxChannel;
 import me.redplayer_1.towerdefense.Util.ItemUtils;
 import me.redplayer_1.towerdefense.Util.LogLevel;
 import me.redplayer_1.towerdefense.Util.MessageUtils;
@@ -43,6 +44,8 @@ public class LayoutEditor {
 
     private final Player player;
     private final @Nullable String name; // only set if the editor is editing an existing layout
+    private float enemyTickRate = 0; // kept from the edited layout
+    private Layout.RenderMode renderMode = Layout.RenderMode.DISPLAY; // kept from the edited layout
     private final ItemStack[] playerInventory;
     private BlockMesh bottomPlatform;
     private final BlockMesh placementArea;
@@ -77,6 +80,8 @@ public class LayoutEditor {
     public LayoutEditor(Player player, Layout template) {
         this.player = player;
         name = template.getName();
+        enemyTickRate = template.getEnemyTickRate();
+        renderMode = template.getRenderMode();
         playerInventory = player.getInventory().getContents();
         player.getInventory().setContents(toolInventory);
         path = new LinkedList<>();
@@ -159,7 +164,10 @@ public class LayoutEditor {
         if (startLoc == null) return;
         if (name != null) Layouts.removeTemplate(name); // ensure there no duplicates
         Vector3 relLoc = placementArea.toRelativeLocation(startLoc);
-        Layouts.addTemplate(new Layout(name, relLoc, close(), path.toArray(new Direction[0]), 1));
+        Layout layout = new Layout(name, relLoc, close(), path.toArray(new Direction[0]), 1);
+        layout.setEnemyTickRate(enemyTickRate);
+        layout.setRenderMode(renderMode);
+        Layouts.addTemplate(layout);
     }
 
     /**
@@ -279,7 +287,7 @@ public class LayoutEditor {
                         log(editor.player, "No nodes have been placed.", LogLevel.ERROR);
                     } else {
                         editor.removeLastNode();
-                        p.playSound(p, Sound.BLOCK_NOTE_BLOCK_IRON_XYLOPHONE, 1, .5f);
+                        FxChannel.of(p).sound(Sound.BLOCK_NOTE_BLOCK_IRON_XYLOPHONE, p.getLocation(), 1, .5f);
                     }
                 } else {
                     return;
@@ -288,9 +296,9 @@ public class LayoutEditor {
             }
             try {
                 editor.addNode(dir); // automatically handles relative locations
-                p.playSound(p, Sound.BLOCK_NOTE_BLOCK_CHIME, 1, 1);
+                FxChannel.of(p).sound(Sound.BLOCK_NOTE_BLOCK_CHIME, p.getLocation(), 1, 1);
             } catch (NodeOutOfBoundsException e) {
-                p.playSound(p, Sound.BLOCK_NOTE_BLOCK_BASEDRUM, 1, .3f);
+                FxChannel.of(p).sound(Sound.BLOCK_NOTE_BLOCK_BASEDRUM, p.getLocation(), 1, .3f);
             }
         }
     }
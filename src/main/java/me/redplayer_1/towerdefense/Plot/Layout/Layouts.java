@@ -29,7 +29,10 @@ public final class Layouts {
                 BlockMesh mesh = new BlockMesh(layout.getMesh());
                 mesh.place(bottomLeft);
                 MessageUtils.logConsole("LAYOUTS CREATE -> wave #" + wave, LogLevel.DEBUG);
-                return new Layout(name, layout.getStartLocation(), mesh, layout.getPath(), wave);
+                Layout copy = new Layout(name, layout.getStartLocation(), mesh, layout.getPath(), wave);
+                copy.setEnemyTickRate(layout.getEnemyTickRate());
+                copy.setRenderMode(layout.getRenderMode());
+                return copy;
             }
         }
         return null;
@@ -0,0 +1,180 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Util.LogLevel;
+import me.redplayer_1.towerdefense.Util.MessageUtils;
+import org.bukkit.Bukkit;
+
+/**
+ * Lowers the quality of every layout while the server is overloaded. The server's average tick time (MSPT) is
+ * sampled periodically by the {@link GameLoop}; while it stays above the degrade threshold, the governor steps down one
+ * {@link QualityLevel} at a time, and once it stays below the (lower) recover threshold for longer, it steps back up.
+ * Each level keeps the reductions of the levels above it.
+ */
+public final class LoadGovernor {
+    private static final int SAMPLE_INTERVAL = 20; // ticks between MSPT samples
+    private static final int DEGRADE_SAMPLES = 3; // consecutive overloaded samples before stepping down
+    private static final int RECOVER_SAMPLES = 10; // consecutive recovered samples before stepping up
+    private static final QualityLevel[] LEVELS = QualityLevel.values();
+
+    private static boolean enabled = true;
+    private static double degradeMspt = 45;
+    private static double recoverMspt = 35;
+    private static QualityLevel level = QualityLevel.FULL;
+    private static int sampleCountdown = SAMPLE_INTERVAL;
+    private static int overloadedSamples = 0;
+    private static int recoveredSamples = 0;
+    private static double lastMspt = 0;
+
+    private LoadGovernor() { }
+
+    /**
+     * Called by the {@link GameLoop} every tick. Samples the server's MSPT every {@link #SAMPLE_INTERVAL} ticks and
+     * changes the quality level if needed.
+     */
+    static void tick() {
+        if (--sampleCountdown > 0) return;
+        sampleCountdown = SAMPLE_INTERVAL;
+        if (!enabled) return;
+        lastMspt = Bukkit.getAverageTickTime();
+        if (lastMspt > degradeMspt) {
+            recoveredSamples = 0;
+            if (++overloadedSamples >= DEGRADE_SAMPLES && level.ordinal() < LEVELS.length - 1) {
+                setLevel(LEVELS[level.ordinal() + 1]);
+            }
+        } else if (lastMspt < recoverMspt) {
+            overloadedSamples = 0;
+            if (++recoveredSamples >= RECOVER_SAMPLES && level.ordinal() > 0) {
+                setLevel(LEVELS[level.ordinal() - 1]);
+            }
+        } else {
+            // between the thresholds, the current level is kept
+            overloadedSamples = 0;
+            recoveredSamples = 0;
+        }
+    }
+
+    private static void setLevel(QualityLevel newLevel) {
+        MessageUtils.logConsole(
+                "Server load is " + String.format("%.1f", lastMspt) + "mspt, changing quality level from "
+                        + level.name() + " to " + newLevel.name(),
+                newLevel.ordinal() > level.ordinal() ? LogLevel.WARN : LogLevel.NOTICE
+        );
+        level = newLevel;
+        overloadedSamples = 0;
+        recoveredSamples = 0;
+    }
+
+    /**
+     * @return the current quality level
+     */
+    public static QualityLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * @return the server's MSPT at the last sample
+     */
+    public static double getLastMspt() {
+        return lastMspt;
+    }
+
+    /**
+     * Enables or disables the governor. Disabling it restores {@link QualityLevel#FULL full} quality.
+     */
+    public static void setEnabled(boolean enabled) {
+        LoadGovernor.enabled = enabled;
+        if (!enabled) {
+            level = QualityLevel.FULL;
+            overloadedSamples = 0;
+            recoveredSamples = 0;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the MSPT thresholds. The recover threshold is kept at or below the degrade threshold.
+     * @param degrade the MSPT above which quality is lowered
+     * @param recover the MSPT below which quality is raised again
+     */
+    public static void setThresholds(double degrade, double recover) {
+        degradeMspt = degrade;
+        recoverMspt = Math.min(recover, degrade);
+    }
+
+    public static double getDegradeMspt() {
+        return degradeMspt;
+    }
+
+    public static double getRecoverMspt() {
+        return recoverMspt;
+    }
+
+    /**
+     * The quality levels, from full quality to the most reduced. Every level includes the reductions of the
+     * levels before it.
+     */
+    public enum QualityLevel {
+        /** nothing is reduced */
+        FULL(1, 1, false, 1),
+        /** only every third attack particle is shown */
+        FEWER_PARTICLES(3, 1, false, 1),
+        /** enemy entities are teleported less often and always interpolated */
+        COARSE_MOVEMENT(3, 2, false, 1),
+        /** health displays are only updated when their enemy is teleported */
+        FEWER_HEALTH_UPDATES(3, 2, true, 1),
+        /** enemies are spawned less often */
+        SLOWER_SPAWNS(3, 2, true, 2);
+
+        private final int particleStride;
+        private final int teleportIntervalMultiplier;
+        private final boolean deferHealthUpdates;
+        private final int spawnIntervalMultiplier;
+
+        QualityLevel(int particleStride, int teleportIntervalMultiplier, boolean deferHealthUpdates, int spawnIntervalMultiplier) {
+            this.particleStride = particleStride;
+            this.teleportIntervalMultiplier = teleportIntervalMultiplier;
+            this.deferHealthUpdates = deferHealthUpdates;
+            this.spawnIntervalMultiplier = spawnIntervalMultiplier;
+        }
+
+        /**
+         * @return the stride of the attack particles that are shown (every particle at full quality)
+         */
+        public int getParticleStride() {
+            return particleStride;
+        }
+
+        /**
+         * @return if entity movement is coarser than the configured {@link EnemyStore.MovementMode}
+         */
+        public boolean isCoarseMovement() {
+            return teleportIntervalMultiplier > 1;
+        }
+
+        /**
+         * @param interval the maximum steps between teleports at full quality
+         * @return the maximum steps between teleports at this level
+         */
+        public int scaleTeleportInterval(int interval) {
+            return interval * teleportIntervalMultiplier;
+        }
+
+        /**
+         * @return if health displays are only updated when their enemy is teleported
+         */
+        public boolean defersHealthUpdates() {
+            return deferHealthUpdates;
+        }
+
+        /**
+         * @param interval the steps between spawns at full quality
+         * @return the steps between spawns at this level
+         */
+        public int scaleSpawnInterval(int interval) {
+            return interval * spawnIntervalMultiplier;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+/**
+ * A fixed-timestep clock driven by wall-clock time. Every server tick, the clock is {@link #advance(long) advanced}
+ * and reports how many simulation steps are due, so the simulation runs at the same speed regardless of the server's
+ * TPS. If the clock falls too far behind, only a bounded number of steps are caught up and the rest are dropped.
+ */
+public class SimulationClock {
+    /** The step rate used when a layout doesn't specify one (one step per tick at 20 TPS) */
+    public static final float DEFAULT_STEP_RATE = 20;
+    private static final float SERVER_TICK_RATE = 20; // ticks per second at full TPS
+    private static int maxCatchUpSteps = 5; // the most steps that are run in a single server tick
+
+    private final float stepRate;
+    private final long stepNanos;
+    private long lastNanos = -1; // the time of the last advance, or -1 if the clock hasn't been advanced
+    private long accumulatedNanos = 0; // time that hasn't been turned into steps yet
+    private long droppedSteps = 0;
+
+    /**
+     * Creates a new clock
+     * @param stepRate the number of steps per second. If it isn't positive, the {@link #DEFAULT_STEP_RATE} is used.
+     */
+    public SimulationClock(float stepRate) {
+        this.stepRate = stepRate > 0 ? stepRate : DEFAULT_STEP_RATE;
+        stepNanos = Math.max(1, Math.round(1e9 / this.stepRate));
+    }
+
+    /**
+     * Advances the clock to the current time
+     * @param nowNanos the current time (from {@link System#nanoTime()})
+     * @return the number of steps that should be run now
+     */
+    public int advance(long nowNanos) {
+        if (lastNanos == -1) {
+            lastNanos = nowNanos;
+            return 0;
+        }
+        accumulatedNanos += nowNanos - lastNanos;
+        lastNanos = nowNanos;
+        long steps = accumulatedNanos / stepNanos;
+        accumulatedNanos -= steps * stepNanos;
+        if (steps > maxCatchUpSteps) {
+            // the simulation can't catch up without making the lag worse, so the extra time is skipped
+            droppedSteps += steps - maxCatchUpSteps;
+            steps = maxCatchUpSteps;
+        }
+        return (int) steps;
+    }
+
+    /**
+     * Skips steps that were due but couldn't be run. They are counted as {@link #getDroppedSteps() dropped}.
+     * @param steps the number of steps to skip
+     */
+    public void drop(int steps) {
+        droppedSteps += steps;
+    }
+
+    /**
+     * Restarts the clock. The time before the next {@link #advance(long) advance} is not simulated.
+     */
+    public void reset() {
+        lastNanos = -1;
+        accumulatedNanos = 0;
+    }
+
+    /**
+     * @return the number of steps per second
+     */
+    public float getStepRate() {
+        return stepRate;
+    }
+
+    /**
+     * @return the number of server ticks (at full TPS) that one step takes
+     */
+    public float getTicksPerStep() {
+        return SERVER_TICK_RATE / stepRate;
+    }
+
+    /**
+     * Converts a duration in seconds to a number of steps
+     * @param seconds the duration
+     * @return the number of steps (at least one) that take the duration
+     */
+    public int stepsFor(double seconds) {
+        return Math.max(1, (int) Math.round(seconds * stepRate));
+    }
+
+    /**
+     * @return the number of steps that were skipped because the clock fell too far behind
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    /**
+     * @param steps the most steps that any clock runs in a single server tick
+     */
+    public static void setMaxCatchUpSteps(int steps) {
+        maxCatchUpSteps = Math.max(1, steps);
+    }
+
+    public static int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+}
@@ -0,0 +1,201 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Plot.Tower.EffectType;
+import me.redplayer_1.towerdefense.Util.TimerWheel;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The status effects of the enemies in an {@link EnemyStore}. Effect state is kept in per-slot arrays, and every
+ * effect expiry and poison tick is scheduled on a single timer wheel that is advanced once per step, so no tasks are
+ * scheduled and enemies without effects cost nothing.
+ */
+public class StatusEffects {
+    private static final int POISON_INTERVAL = 10; // steps between poison damage (documented on EffectType.POISON)
+    private static final int WHEEL_SIZE = 256;
+    private static final int TYPES = 3; // effect types with timers (every type except NONE)
+    private static final int INITIAL_CAPACITY = 16;
+    private static final EffectType[] EFFECT_TYPES = EffectType.values();
+
+    private final EnemyStore enemies;
+    private final TimerWheel<Integer> wheel = new TimerWheel<>(WHEEL_SIZE);
+    private final Consumer<Integer> onTimer = this::onTimer;
+    // each slot has one reusable timer per type, whose value is slot * TYPES + type index
+    private TimerWheel.Timer<Integer>[] timers;
+    private byte[] active; // bit mask of each enemy's active effects
+    private int[] slowPercent;
+    private int[] poisonDamage;
+    private long[] poisonEnd; // the wheel tick that the poison wears off at
+    private long[] poisonNextHit; // the wheel tick of the next poison damage
+
+    /**
+     * Creates the effects for a store
+     * @param enemies the store that the effects are applied to
+     */
+    @SuppressWarnings("unchecked")
+    StatusEffects(EnemyStore enemies) {
+        this.enemies = enemies;
+        timers = (TimerWheel.Timer<Integer>[]) new TimerWheel.Timer[INITIAL_CAPACITY * TYPES];
+        active = new byte[INITIAL_CAPACITY];
+        slowPercent = new int[INITIAL_CAPACITY];
+        poisonDamage = new int[INITIAL_CAPACITY];
+        poisonEnd = new long[INITIAL_CAPACITY];
+        poisonNextHit = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Applies an effect to an enemy. If the enemy already has the effect, the stronger strength and the longer
+     * remaining duration are kept.
+     * @param slot the enemy's slot
+     * @param type the effect to apply
+     * @param strength the effect's strength (see {@link EffectType})
+     * @param duration the number of steps the effect lasts
+     */
+    public void apply(int slot, EffectType type, int strength, int duration) {
+        if (type == EffectType.NONE || duration <= 0 || !enemies.isAlive(slot)) return;
+        if (slot >= active.length) {
+            grow(slot + 1);
+        }
+        boolean wasActive = has(slot, type);
+        active[slot] |= bit(type);
+        TimerWheel.Timer<Integer> timer = timer(slot, type);
+        switch (type) {
+            case SLOW -> {
+                int percent = Math.max(0, Math.min(strength, 100));
+                slowPercent[slot] = wasActive ? Math.max(slowPercent[slot], percent) : percent;
+                wheel.schedule(timer, (int) Math.max(timer.getRemaining(), duration));
+                enemies.updateSpeed(slot);
+            }
+            case STUN -> {
+                wheel.schedule(timer, (int) Math.max(timer.getRemaining(), duration));
+                enemies.updateSpeed(slot);
+            }
+            case POISON -> {
+                long now = wheel.getTick();
+                poisonDamage[slot] = wasActive ? Math.max(poisonDamage[slot], strength) : strength;
+                poisonEnd[slot] = wasActive ? Math.max(poisonEnd[slot], now + duration) : now + duration;
+                if (!wasActive) {
+                    // the first hit is dealt right away
+                    enemies.queueDamage(slot, strength);
+                    poisonNextHit[slot] = now + POISON_INTERVAL;
+                    schedulePoison(slot, timer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Advances the effects by one step, expiring effects and dealing poison damage
+     */
+    public void tick() {
+        if (wheel.size() > 0) {
+            wheel.advance(onTimer);
+        }
+    }
+
+    private void onTimer(Integer id) {
+        int slot = id / TYPES;
+        EffectType type = EFFECT_TYPES[id % TYPES + 1];
+        switch (type) {
+            case SLOW -> {
+                active[slot] &= ~bit(type);
+                slowPercent[slot] = 0;
+                enemies.updateSpeed(slot);
+            }
+            case STUN -> {
+                active[slot] &= ~bit(type);
+                enemies.updateSpeed(slot);
+            }
+            case POISON -> {
+                long now = wheel.getTick();
+                if (now >= poisonEnd[slot]) {
+                    active[slot] &= ~bit(type);
+                    poisonDamage[slot] = 0;
+                    return;
+                }
+                // the timer may have been set for an end that was extended since
+                if (now >= poisonNextHit[slot]) {
+                    enemies.queueDamage(slot, poisonDamage[slot]);
+                    poisonNextHit[slot] = now + POISON_INTERVAL;
+                }
+                schedulePoison(slot, timers[id]);
+            }
+        }
+    }
+
+    /**
+     * Schedules the poison timer for the next hit or for the end of the poison, whichever comes first
+     */
+    private void schedulePoison(int slot, TimerWheel.Timer<Integer> timer) {
+        wheel.schedule(timer, (int) (Math.min(poisonNextHit[slot], poisonEnd[slot]) - wheel.getTick()));
+    }
+
+    /**
+     * @param slot the enemy's slot
+     * @param type the effect
+     * @return if the enemy has the effect
+     */
+    public boolean has(int slot, EffectType type) {
+        return slot < active.length && (active[slot] & bit(type)) != 0;
+    }
+
+    /**
+     * @param slot the enemy's slot
+     * @return the percent of its base speed that the enemy moves at
+     */
+    int getSpeedPercent(int slot) {
+        if (slot >= active.length || active[slot] == 0) return 100;
+        if (has(slot, EffectType.STUN)) return 0;
+        return 100 - slowPercent[slot];
+    }
+
+    /**
+     * Removes every effect from an enemy (without updating its speed)
+     * @param slot the enemy's slot
+     */
+    void remove(int slot) {
+        if (slot >= active.length || active[slot] == 0) return;
+        for (int i = 0; i < TYPES; i++) {
+            TimerWheel.Timer<Integer> timer = timers[slot * TYPES + i];
+            if (timer != null) {
+                wheel.cancel(timer);
+            }
+        }
+        active[slot] = 0;
+        slowPercent[slot] = 0;
+        poisonDamage[slot] = 0;
+    }
+
+    /**
+     * Removes every effect from every enemy
+     */
+    void clear() {
+        wheel.clear();
+        Arrays.fill(active, (byte) 0);
+        Arrays.fill(slowPercent, 0);
+        Arrays.fill(poisonDamage, 0);
+    }
+
+    private TimerWheel.Timer<Integer> timer(int slot, EffectType type) {
+        int id = slot * TYPES + type.ordinal() - 1;
+        if (timers[id] == null) {
+            timers[id] = new TimerWheel.Timer<>(id);
+        }
+        return timers[id];
+    }
+
+    private static byte bit(EffectType type) {
+        return (byte) (1 << type.ordinal());
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, active.length * 2);
+        timers = Arrays.copyOf(timers, capacity * TYPES);
+        active = Arrays.copyOf(active, capacity);
+        slowPercent = Arrays.copyOf(slowPercent, capacity);
+        poisonDamage = Arrays.copyOf(poisonDamage, capacity);
+        poisonEnd = Arrays.copyOf(poisonEnd, capacity);
+        poisonNextHit = Arrays.copyOf(poisonNextHit, capacity);
+    }
+}
@@ -1,14 +1,19 @@
 package me.redplayer_1.towerdefense.Plot.Layout;
 
+import me.redplayer_1.towerdefense.Plot.Enemy.EnemyArchetype;
+
 /**
- * Manages which wave the layout is on. This class also calculates the different attributes of the wave.
+ * Manages which wave the layout is on. The attributes of each wave are read from the {@link WaveTable}.
  */
 public class WaveManager {
+    private static WaveTable table = WaveTable.DEFAULT;
     private int wave;
     private int enemyCount;
     private int enemyHealth;
     private int enemyCoinYield;
     private int completionCoinYield;
+    private double spawnInterval;
+    private boolean endless;
 
     /**
      * @param startWave The wave to start on. Ff the provided value is less than 1, it will be set to 1
@@ -25,21 +30,17 @@ public class WaveManager {
     }
 
     /**
-     * Sets the wave that the manager is on. The wave's attributes are calculated as:
-     * <ul>
-     *     <li>{@code enemyCount = wave^.5 + 3}</li>
-     *     <li>{@code enemyHealth = wave^2 + 9}</li>
-     *     <li>{@code enemyCoinYield = enemyHealth * .2 + wave}</li>
-     *     <li>{@code completionCoinYield = 0}</li>
-     * </ul>
+     * Sets the wave that the manager is on and looks up the wave's attributes in the {@link WaveTable}
      */
     public void setWave(int wave) {
         if (wave < 1) wave = 1;
         this.wave = wave;
-        enemyCount = (int) Math.pow(wave, .5) + 3;
-        enemyHealth = (int) Math.pow(wave, 2) + 9;
-        enemyCoinYield = (int) (enemyHealth * .2 + wave);
-        completionCoinYield = 0; // TODO: is such an incentive needed?
+        enemyCount = table.getEnemyCount(wave);
+        enemyHealth = table.getEnemyHealth(wave);
+        enemyCoinYield = table.getEnemyCoinYield(wave);
+        completionCoinYield = table.getCompletionCoinYield(wave);
+        spawnInterval = table.getSpawnInterval(wave);
+        endless = table.isEndless(wave);
     }
 
     /**
@@ -76,4 +77,38 @@ public class WaveManager {
     public int getCompletionCoinYield() {
         return completionCoinYield;
     }
+
+    /**
+     * @return the number of seconds between spawns
+     */
+    public double getSpawnInterval() {
+        return spawnInterval;
+    }
+
+    /**
+     * @return if the wave is an endless (high-density) wave, whose enemies are shown as crowds
+     */
+    public boolean isEndless() {
+        return endless;
+    }
+
+    /**
+     * @param spawnIndex the number of enemies spawned before this one during the wave
+     * @return the type of enemy to spawn
+     */
+    public EnemyArchetype getArchetype(int spawnIndex) {
+        return table.getArchetype(wave, spawnIndex);
+    }
+
+    /**
+     * Sets the table that waves are read from. Managers read the new table the next time their wave is set.
+     * @param table the compiled wave definitions
+     */
+    public static void setTable(WaveTable table) {
+        WaveManager.table = table;
+    }
+
+    public static WaveTable getTable() {
+        return table;
+    }
 }
\ No newline at end of file
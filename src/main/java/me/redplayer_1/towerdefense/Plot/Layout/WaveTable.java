@@ -0,0 +1,306 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Plot.Enemy.Enemies;
+import me.redplayer_1.towerdefense.Plot.Enemy.EnemyArchetype;
+import me.redplayer_1.towerdefense.Util.LogLevel;
+import me.redplayer_1.towerdefense.Util.MessageUtils;
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The attributes of every wave, compiled once into lookup tables. Each attribute is a curve of the form
+ * {@code base + coefficient * wave^exponent}; specific waves can override any attribute. Waves up to the table size
+ * are array reads, and later waves are computed from the curves.
+ * <p>
+ * From the endless wave onward (if set), waves are high-density: their enemy count (from the curve) is multiplied by
+ * the endless density and enemies are spawned that many times as fast. Layouts show the enemies of these waves as
+ * crowds.
+ */
+public class WaveTable {
+    /** The table used when no wave definitions are loaded (the original hard-coded formulas) */
+    public static final WaveTable DEFAULT = new WaveTable(
+            new Curve(3, 1, .5), new Curve(9, 1, 2), new Curve(0, 1, 1), .2,
+            new Curve(0, 0, 0), new Curve(1, 0, 0), new TreeMap<>(), new TreeMap<>(), 0, 0, 1
+    );
+
+    private final Curve enemyCount;
+    private final Curve enemyHealth;
+    private final Curve enemyCoins;
+    private final double coinsPerHealth; // added to the enemy coin yield for every point of enemy health
+    private final Curve completionCoins;
+    private final Curve spawnInterval;
+    private final TreeMap<Integer, Mix> mixes; // the enemy mix used from each wave onward
+    private final int endlessWave; // the first endless wave, or 0 if there are none
+    private final double endlessDensity; // the enemy count multiplier and spawn interval divisor of endless waves
+    // lookup tables, index 0 is wave 1
+    private final int[] counts;
+    private final int[] healths;
+    private final int[] coins;
+    private final int[] completions;
+    private final double[] intervals;
+    private final @Nullable Mix[] waveMixes; // null if the wave uses the default archetype
+
+    private WaveTable(
+            Curve enemyCount, Curve enemyHealth, Curve enemyCoins, double coinsPerHealth, Curve completionCoins,
+            Curve spawnInterval, TreeMap<Integer, Mix> mixes, TreeMap<Integer, WaveOverride> overrides, int size,
+            int endlessWave, double endlessDensity
+    ) {
+        this.enemyCount = enemyCount;
+        this.enemyHealth = enemyHealth;
+        this.enemyCoins = enemyCoins;
+        this.coinsPerHealth = coinsPerHealth;
+        this.completionCoins = completionCoins;
+        this.spawnInterval = spawnInterval;
+        this.mixes = mixes;
+        this.endlessWave = endlessWave;
+        this.endlessDensity = endlessDensity;
+        if (!overrides.isEmpty()) {
+            size = Math.max(size, overrides.lastKey());
+        }
+        counts = new int[size];
+        healths = new int[size];
+        coins = new int[size];
+        completions = new int[size];
+        intervals = new double[size];
+        waveMixes = new Mix[size];
+        for (int i = 0; i < size; i++) {
+            int wave = i + 1;
+            WaveOverride override = overrides.get(wave);
+            healths[i] = override != null && override.enemyHealth != null ? override.enemyHealth : computeHealth(wave);
+            counts[i] = override != null && override.enemyCount != null ? override.enemyCount : computeCount(wave);
+            coins[i] = override != null && override.enemyCoins != null ? override.enemyCoins : computeCoins(wave, healths[i]);
+            completions[i] = override != null && override.completionCoins != null ? override.completionCoins : computeCompletionCoins(wave);
+            intervals[i] = override != null && override.spawnInterval != null ? override.spawnInterval : computeSpawnInterval(wave);
+            waveMixes[i] = override != null && override.mix != null ? override.mix : computeMix(wave);
+        }
+    }
+
+    /**
+     * @return the number of enemies spawned in the wave
+     */
+    public int getEnemyCount(int wave) {
+        return wave <= counts.length ? counts[wave - 1] : computeCount(wave);
+    }
+
+    /**
+     * @return the base health of the wave's enemies (before the archetype's multiplier)
+     */
+    public int getEnemyHealth(int wave) {
+        return wave <= healths.length ? healths[wave - 1] : computeHealth(wave);
+    }
+
+    /**
+     * @return the base number of coins given for killing one of the wave's enemies
+     */
+    public int getEnemyCoinYield(int wave) {
+        return wave <= coins.length ? coins[wave - 1] : computeCoins(wave, computeHealth(wave));
+    }
+
+    /**
+     * @return the number of coins given for completing the wave
+     */
+    public int getCompletionCoinYield(int wave) {
+        return wave <= completions.length ? completions[wave - 1] : computeCompletionCoins(wave);
+    }
+
+    /**
+     * @return the number of seconds between spawns in the wave
+     */
+    public double getSpawnInterval(int wave) {
+        return wave <= intervals.length ? intervals[wave - 1] : computeSpawnInterval(wave);
+    }
+
+    /**
+     * @param wave the wave
+     * @param spawnIndex the number of enemies spawned before this one during the wave
+     * @return the archetype of the enemy
+     */
+    public EnemyArchetype getArchetype(int wave, int spawnIndex) {
+        Mix mix = wave <= waveMixes.length ? waveMixes[wave - 1] : computeMix(wave);
+        if (mix == null) {
+            return Enemies.getOrDefault(Enemies.DEFAULT.name);
+        }
+        return mix.sequence[spawnIndex % mix.sequence.length];
+    }
+
+    /**
+     * @return if the wave is an endless (high-density) wave
+     */
+    public boolean isEndless(int wave) {
+        return endlessWave > 0 && wave >= endlessWave;
+    }
+
+    private int computeCount(int wave) {
+        double count = enemyCount.at(wave);
+        return Math.max(1, (int) (isEndless(wave) ? count * endlessDensity : count));
+    }
+
+    private int computeHealth(int wave) {
+        return Math.max(1, (int) enemyHealth.at(wave));
+    }
+
+    private int computeCoins(int wave, int health) {
+        return Math.max(0, (int) (enemyCoins.at(wave) + health * coinsPerHealth));
+    }
+
+    private int computeCompletionCoins(int wave) {
+        return Math.max(0, (int) completionCoins.at(wave));
+    }
+
+    private double computeSpawnInterval(int wave) {
+        double interval = spawnInterval.at(wave);
+        return Math.max(.05, isEndless(wave) ? interval / endlessDensity : interval);
+    }
+
+    private @Nullable Mix computeMix(int wave) {
+        Map.Entry<Integer, Mix> entry = mixes.floorEntry(wave);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    /**
+     * Compiles the wave definitions in a config section. Missing attributes keep the {@link #DEFAULT default} curves.
+     * Enemy archetypes must already be loaded.
+     * @param section the section containing the definitions
+     * @return the compiled table
+     */
+    public static WaveTable compile(ConfigurationSection section) {
+        TreeMap<Integer, Mix> mixes = new TreeMap<>();
+        ConfigurationSection mixSection = section.getConfigurationSection("enemies");
+        if (mixSection != null) {
+            for (String key : mixSection.getKeys(false)) {
+                Integer fromWave = parseWave(key);
+                Mix mix = fromWave != null ? parseMix(mixSection.getConfigurationSection(key)) : null;
+                if (mix != null) {
+                    mixes.put(fromWave, mix);
+                } else {
+                    MessageUtils.logConsole("Invalid enemy mix \"" + key + "\" in wave definitions", LogLevel.WARN);
+                }
+            }
+        }
+        TreeMap<Integer, WaveOverride> overrides = new TreeMap<>();
+        ConfigurationSection overrideSection = section.getConfigurationSection("overrides");
+        if (overrideSection != null) {
+            for (String key : overrideSection.getKeys(false)) {
+                Integer wave = parseWave(key);
+                ConfigurationSection waveSection = overrideSection.getConfigurationSection(key);
+                if (wave == null || waveSection == null) {
+                    MessageUtils.logConsole("Invalid wave override \"" + key + "\" in wave definitions", LogLevel.WARN);
+                    continue;
+                }
+                overrides.put(wave, new WaveOverride(
+                        waveSection.isInt("enemy_count") ? waveSection.getInt("enemy_count") : null,
+                        waveSection.isInt("enemy_health") ? waveSection.getInt("enemy_health") : null,
+                        waveSection.isInt("enemy_coins") ? waveSection.getInt("enemy_coins") : null,
+                        waveSection.isInt("completion_coins") ? waveSection.getInt("completion_coins") : null,
+                        waveSection.contains("spawn_interval") ? waveSection.getDouble("spawn_interval") : null,
+                        parseMix(waveSection.getConfigurationSection("enemies"))
+                ));
+            }
+        }
+        return new WaveTable(
+                Curve.parse(section.getConfigurationSection("enemy_count"), DEFAULT.enemyCount),
+                Curve.parse(section.getConfigurationSection("enemy_health"), DEFAULT.enemyHealth),
+                Curve.parse(section.getConfigurationSection("enemy_coins"), DEFAULT.enemyCoins),
+                section.getDouble("enemy_coins.per_health", DEFAULT.coinsPerHealth),
+                Curve.parse(section.getConfigurationSection("completion_coins"), DEFAULT.completionCoins),
+                Curve.parse(section.getConfigurationSection("spawn_interval"), DEFAULT.spawnInterval),
+                mixes,
+                overrides,
+                Math.max(section.getInt("table_size", 100), 0),
+                Math.max(section.getInt("endless.from_wave", DEFAULT.endlessWave), 0),
+                Math.max(section.getDouble("endless.density", DEFAULT.endlessDensity), 1)
+        );
+    }
+
+    private static @Nullable Integer parseWave(String key) {
+        try {
+            int wave = Integer.parseInt(key);
+            return wave >= 1 ? wave : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a section of archetype names and weights
+     * @return the mix, or null if the section is missing or has no valid archetypes
+     */
+    private static @Nullable Mix parseMix(@Nullable ConfigurationSection section) {
+        if (section == null) return null;
+        ArrayList<EnemyArchetype> archetypes = new ArrayList<>();
+        ArrayList<Integer> weights = new ArrayList<>();
+        for (String name : section.getKeys(false)) {
+            EnemyArchetype archetype = Enemies.get(name);
+            int weight = section.getInt(name);
+            if (archetype == null || weight <= 0) {
+                MessageUtils.logConsole("Invalid enemy \"" + name + "\" in wave definitions", LogLevel.WARN);
+                continue;
+            }
+            archetypes.add(archetype);
+            weights.add(weight);
+        }
+        if (archetypes.isEmpty()) return null;
+        return new Mix(
+                archetypes.toArray(new EnemyArchetype[0]),
+                weights.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    /**
+     * {@code base + coefficient * wave^exponent}
+     */
+    private record Curve(double base, double coefficient, double exponent) {
+        double at(int wave) {
+            return base + coefficient * Math.pow(wave, exponent);
+        }
+
+        static Curve parse(@Nullable ConfigurationSection section, Curve fallback) {
+            if (section == null) return fallback;
+            return new Curve(
+                    section.getDouble("base", fallback.base),
+                    section.getDouble("coefficient", fallback.coefficient),
+                    section.getDouble("exponent", fallback.exponent)
+            );
+        }
+    }
+
+    /**
+     * The values of a single wave that replace the curves (null values aren't replaced)
+     */
+    private record WaveOverride(
+            @Nullable Integer enemyCount, @Nullable Integer enemyHealth, @Nullable Integer enemyCoins,
+            @Nullable Integer completionCoins, @Nullable Double spawnInterval, @Nullable Mix mix
+    ) { }
+
+    /**
+     * Weighted archetypes, compiled into a repeating spawn sequence that spreads each archetype evenly
+     */
+    private static class Mix {
+        final EnemyArchetype[] sequence;
+
+        Mix(EnemyArchetype[] archetypes, int[] weights) {
+            int total = 0;
+            for (int weight : weights) {
+                total += weight;
+            }
+            // smooth weighted round-robin
+            sequence = new EnemyArchetype[total];
+            int[] current = new int[weights.length];
+            for (int i = 0; i < total; i++) {
+                int best = 0;
+                for (int j = 0; j < weights.length; j++) {
+                    current[j] += weights[j];
+                    if (current[j] > current[best]) {
+                        best = j;
+                    }
+                }
+                current[best] -= total;
+                sequence[i] = archetypes[best];
+            }
+        }
+    }
+}
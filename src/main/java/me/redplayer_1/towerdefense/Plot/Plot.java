@@ -21,8 +21,12 @@ import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * A square area (width, length, and height = Layout.SIZE) consisting of a bottom layer of filler blocks, then
@@ -46,6 +50,7 @@ public class Plot {
     private Layout layout;
     private int x;
     private int y;
+    private final LinkedHashSet<UUID> visitors = new LinkedHashSet<>(); // players invited to see the plot's enemies
 
     /**
      * Creates a new plot using the default layout
@@ -147,6 +152,31 @@ public class Plot {
         return layout;
     }
 
+    /**
+     * Invites a player to the plot, which lets them see the plot's enemies
+     * @param player the player's UUID
+     * @return if the player wasn't invited already
+     */
+    public boolean addVisitor(UUID player) {
+        return visitors.add(player);
+    }
+
+    /**
+     * Removes a player's invite to the plot
+     * @param player the player's UUID
+     * @return if the player was invited
+     */
+    public boolean removeVisitor(UUID player) {
+        return visitors.remove(player);
+    }
+
+    /**
+     * @return the players invited to the plot
+     */
+    public Set<UUID> getVisitors() {
+        return Collections.unmodifiableSet(visitors);
+    }
+
     /**
      * Teleports the player to the bottom left corner of the plot
      *
@@ -180,6 +210,7 @@ public class Plot {
             }
         }
         section.set("towers", towerData);
+        section.set("visitors", visitors.stream().map(UUID::toString).toList());
     }
 
     /**
@@ -197,6 +228,13 @@ public class Plot {
         String layoutName = section.getString("layout");
         if (!Layouts.isTemplate(layoutName)) throw new NoLayoutFoundException("Layout name isn't in the config");
         Plot plot = new Plot(layoutName, layoutWave);
+        for (String visitor : section.getStringList("visitors")) {
+            try {
+                plot.visitors.add(UUID.fromString(visitor));
+            } catch (IllegalArgumentException e) {
+                MessageUtils.logConsole("Plot contains visitor with an invalid UUID: " + visitor, LogLevel.WARN);
+            }
+        }
         // load & place towers
         ConfigurationSection towerSection = section.getConfigurationSection("towers");
         if (towerSection == null) {
@@ -0,0 +1,87 @@
+package me.redplayer_1.towerdefense.Plot.Tower;
+
+import me.redplayer_1.towerdefense.Plot.Layout.CompiledPath;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The particle points of every beam a placed tower can fire. Towers don't move and enemies only move along the path,
+ * so each path cell in range is split into a few buckets along the path, and the points of a beam from the tower to
+ * the center of each bucket are computed once when the tower's range is computed. Showing a beam only replays the
+ * points of the bucket that the enemy is in.
+ */
+public class BeamCache {
+    /** The number of bits of a distance's fractional part that select its bucket */
+    public static final int BUCKET_BITS = 2;
+    /** The number of buckets each path cell is split into */
+    public static final int BUCKETS = 1 << BUCKET_BITS;
+
+    private final int[] cellSlots; // the index into beams / BUCKETS of each path index, or -1 if it isn't in range
+    private final double[][] beams; // x, y, z of each particle point, from the tower to the bucket
+
+    /**
+     * Computes the beams from a point to every bucket of the path cells
+     * @param startX the x-coordinate that beams start at
+     * @param startY the y-coordinate that beams start at
+     * @param startZ the z-coordinate that beams start at
+     * @param pathIndices the path cells that beams are computed for
+     * @param path the path that the cells are on
+     * @param y the y-coordinate that beams end at
+     * @param spacing the amount of space between each particle point
+     */
+    public BeamCache(double startX, double startY, double startZ, int[] pathIndices, CompiledPath path, double y, double spacing) {
+        cellSlots = new int[path.getLength() >> CompiledPath.SHIFT];
+        Arrays.fill(cellSlots, -1);
+        beams = new double[pathIndices.length * BUCKETS][];
+        for (int slot = 0; slot < pathIndices.length; slot++) {
+            int cell = pathIndices[slot];
+            cellSlots[cell] = slot;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                // the center of the bucket
+                int distance = (cell << CompiledPath.SHIFT) + ((2 * bucket + 1) << (CompiledPath.SHIFT - BUCKET_BITS - 1));
+                beams[slot * BUCKETS + bucket] = computeBeam(
+                        startX, startY, startZ, path.xAt(distance) + .5, y, path.zAt(distance) + .5, spacing
+                );
+            }
+        }
+    }
+
+    private static double[] computeBeam(double startX, double startY, double startZ, double endX, double endY, double endZ, double spacing) {
+        double dx = endX - startX;
+        double dy = endY - startY;
+        double dz = endZ - startZ;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (distance == 0) return new double[0];
+        double scale = spacing / distance;
+        dx *= scale;
+        dy *= scale;
+        dz *= scale;
+        int count = (int) Math.ceil(distance / spacing);
+        double[] points = new double[count * 3];
+        for (int i = 0; i < count; i++) {
+            points[i * 3] = startX + dx * (i + 1);
+            points[i * 3 + 1] = startY + dy * (i + 1);
+            points[i * 3 + 2] = startZ + dz * (i + 1);
+        }
+        return points;
+    }
+
+    /**
+     * @param pathIndex the path cell that the beam ends in
+     * @param bucket the bucket of the cell that the beam ends in
+     * @return the x, y, z of each particle point of the beam, or null if the cell isn't in the tower's range
+     */
+    public double @Nullable [] get(int pathIndex, int bucket) {
+        if (pathIndex < 0 || pathIndex >= cellSlots.length || cellSlots[pathIndex] == -1) return null;
+        return beams[cellSlots[pathIndex] * BUCKETS + bucket];
+    }
+
+    /**
+     * @param distance a fixed-point distance along a path
+     * @return the bucket of its path cell that the distance is in
+     */
+    public static int bucketOf(int distance) {
+        return (distance & (CompiledPath.ONE - 1)) >> (CompiledPath.SHIFT - BUCKET_BITS);
+    }
+}
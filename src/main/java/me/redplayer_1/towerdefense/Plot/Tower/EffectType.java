@@ -0,0 +1,18 @@
+package me.redplayer_1.towerdefense.Plot.Tower;
+
+/**
+ * The status effect that a tower applies to the enemies it attacks
+ */
+public enum EffectType {
+    /** no effect */
+    NONE,
+    /** reduces the enemy's speed by strength percent */
+    SLOW,
+    /**
+     * deals strength damage to the enemy when it is applied and every 10 simulation steps afterward, while it lasts
+     * (a duration of 25 steps deals three hits)
+     */
+    POISON,
+    /** stops the enemy from moving (strength is unused) */
+    STUN
+}
@@ -0,0 +1,83 @@
+package me.redplayer_1.towerdefense.Plot.Tower;
+
+/**
+ * A bounded min-heap that keeps the enemies with the largest keys out of all the enemies offered to it. Choosing the
+ * best k out of n enemies costs O(n log k) and doesn't create any objects.
+ */
+class TargetHeap {
+    private final int[] slots;
+    private final int[] keys;
+    private int size = 0;
+
+    /**
+     * @param capacity the number of enemies to keep
+     */
+    TargetHeap(int capacity) {
+        slots = new int[capacity];
+        keys = new int[capacity];
+    }
+
+    /**
+     * Offers an enemy to the heap. It is kept if the heap isn't full or its key is larger than the smallest kept key.
+     * @param slot the enemy's slot
+     * @param key the enemy's key
+     */
+    void offer(int slot, int key) {
+        if (size < slots.length) {
+            int i = size++;
+            // sift up
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (keys[parent] <= key) break;
+                slots[i] = slots[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            slots[i] = slot;
+            keys[i] = key;
+        } else if (size > 0 && key > keys[0]) {
+            siftDown(slot, key);
+        }
+    }
+
+    /**
+     * Removes every kept enemy from the heap
+     * @param out the array to put the enemies' slots in, from the largest key to the smallest
+     * @return the number of slots put in the array
+     */
+    int drain(int[] out) {
+        int count = size;
+        while (size > 0) {
+            out[size - 1] = slots[0];
+            size--;
+            if (size > 0) {
+                siftDown(slots[size], keys[size]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replaces the root with an enemy and moves it down to its place
+     */
+    private void siftDown(int slot, int key) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) break;
+            slots[i] = slots[child];
+            keys[i] = keys[child];
+            i = child;
+        }
+        slots[i] = slot;
+        keys[i] = key;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,15 @@
+package me.redplayer_1.towerdefense.Plot.Tower;
+
+/**
+ * How a tower chooses which of the enemies in its range to attack
+ */
+public enum TargetingMode {
+    /** enemies furthest along the path are attacked first */
+    FIRST,
+    /** enemies closest to the start of the path are attacked first */
+    LAST,
+    /** enemies with the most health are attacked first */
+    STRONGEST,
+    /** enemies with the least health are attacked first */
+    WEAKEST
+}
@@ -1,20 +1,22 @@
 package me.redplayer_1.towerdefense.Plot.Tower;
 
-import com.destroystokyo.paper.ParticleBuilder;
 import me.redplayer_1.towerdefense.Geometry.BlockMesh;
 import me.redplayer_1.towerdefense.Geometry.Vector3;
-import me.redplayer_1.towerdefense.Plot.Layout.Enemy;
+import me.redplayer_1.towerdefense.Plot.Layout.BeamBuffer;
+import me.redplayer_1.towerdefense.Plot.Layout.CompiledPath;
+import me.redplayer_1.towerdefense.Plot.Layout.CoverageIndex;
+import me.redplayer_1.towerdefense.Plot.Layout.EnemyStore;
 import me.redplayer_1.towerdefense.Plot.Layout.Grid;
 import me.redplayer_1.towerdefense.Plot.Layout.GridItem;
 import me.redplayer_1.towerdefense.Plot.Layout.Layout;
 import me.redplayer_1.towerdefense.TDPlayer;
 import me.redplayer_1.towerdefense.TowerDefense;
+import me.redplayer_1.towerdefense.Util.FxChannel;
 import me.redplayer_1.towerdefense.Util.ItemUtils;
 import me.redplayer_1.towerdefense.Util.LogLevel;
 import me.redplayer_1.towerdefense.Util.MessageUtils;
+import me.redplayer_1.towerdefense.Util.TimerWheel;
 import org.bukkit.*;
-import org.bukkit.entity.Entity;
-import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockDamageEvent;
@@ -23,11 +25,11 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Comparator;
 import java.util.LinkedList;
-import java.util.List;
 
 public class Tower {
     public static final int RANGE_UNLIMITED = -1;
@@ -36,7 +38,7 @@ public class Tower {
     public final String name;
     private ItemStack item;
     private BlockMesh mesh;
-    private final LinkedList<Integer> accessiblePathIndices;
+    private int[] accessiblePathIndices; // sorted from the end of the path to the start
     private final Vector3 particlePoint;
     private final Particle particle;
     private int range;
@@ -44,7 +46,16 @@ public class Tower {
     private final int cost;
     private final int targets;
     private final int attackDelay;
-    private int cooldown;
+    private TargetingMode targeting = TargetingMode.FIRST;
+    private EffectType effect = EffectType.NONE;
+    private int effectStrength = 0;
+    private int effectDuration = 0; // in simulation steps
+    private TargetHeap targetHeap = null; // used by the health-based targeting modes
+    private int[] targetSlots = null;
+    private @Nullable BeamCache beamCache = null; // built with the accessible path indices once the tower is placed
+    private final TimerWheel.Timer<Tower> cooldownTimer = new TimerWheel.Timer<>(this);
+    private boolean armed = false; // if the cooldown has expired and the tower is waiting for enemies
+    private int enemiesInRange;
 
     /**
      * Create a new tower
@@ -57,7 +68,7 @@ public class Tower {
      * @param damage the base damage the tower deals
      * @param cost the cost to purchase the tower
      * @param targets the maximum number of enemies that the tower should damage every time it attacks
-     * @param attackDelay number of ticks before the tower can attack enemies
+     * @param attackDelay number of simulation steps before the tower can attack enemies again
      */
     public Tower(@NotNull String name, @NotNull ItemStack item, BlockMesh mesh, Particle particle, Vector3 particlePoint, int range, int damage, int cost, int targets, int attackDelay) {
         this.name = name;
@@ -70,119 +81,204 @@ public class Tower {
         this.cost = cost;
         this.targets = targets;
         this.attackDelay = attackDelay;
-        cooldown = attackDelay;
-        accessiblePathIndices = new LinkedList<>();
+        accessiblePathIndices = new int[0];
     }
 
     /**
-     * Attack/damage the enemy and reset the attack cooldown.
-     * @param enemy the enemy to attack
+     * Attack the enemy and apply the tower's status effect to it. The damage is queued and applied when the store
+     * {@link EnemyStore#resolveDamage() resolves} it.
+     * @param enemies the store containing the enemy
+     * @param slot the enemy's slot in the store
      * @apiNote this method does not check if the tower's cooldown has expired or if the enemy is in range
      * @throws IllegalStateException if the tower's mesh hasn't been placed yet
      * @implSpec the attacked enemy must be alive and in the same world as the tower
      */
-    public void attack(Enemy enemy) {
-        attack(enemy, null, 0, false);
+    public void attack(EnemyStore enemies, int slot) {
+        attack(enemies, slot, null);
     }
 
     /**
-     * Attacks all enemies that are within range and shows a line of particles from the tower to the attacked enemy.
+     * Attacks up to {@link #getTargets() targets} enemies within range, chosen by the tower's {@link TargetingMode}
      * @param enemies the enemies to attempt to attack
-     * @param owner the player that particles are shown to
-     * @param particleSpacing the amount of space between each spawned particle
-     * @apiNote this method does not check if the tower's cooldown has expired or if the enemy is in range
-     * @throws IllegalStateException if the tower's mesh hasn't been placed yet
-     * @implSpec the attacked enemy must be alive and in the same world as the tower
+     * @param coverage the index of which enemies are on each path cell
      */
-    public void attack(List<Enemy> enemies, Player owner, double particleSpacing) {
-        int attacked = 0;
-        for (Enemy e : enemies) {
-            if (attacked >= targets) return;
-            if (e.isAlive() && accessiblePathIndices.contains(e.getPathIndex())) {
-                attack(e, owner, particleSpacing, true);
-                attacked++;
-                MessageUtils.logConsole("[" + System.currentTimeMillis() + "]" + " TOWER ATTACKED", LogLevel.NOTICE);
-            }
-        }
+    public void attack(EnemyStore enemies, CoverageIndex coverage) {
+        attack(enemies, coverage, null);
     }
 
     /**
-     * Attacks all enemies that are within range
+     * Attacks up to {@link #getTargets() targets} enemies within range, chosen by the tower's {@link TargetingMode},
+     * and records a beam from the tower to each attacked enemy. Enemies that will already die from queued damage are
+     * skipped. Doesn't use any Bukkit API, so it is safe to call off the main thread.
      * @param enemies the enemies to attempt to attack
+     * @param coverage the index of which enemies are on each path cell
+     * @param beams the buffer that beams are recorded in, or null if no beams should be shown
+     * @apiNote this method does not check if the tower's cooldown has expired
+     * @throws IllegalStateException if the tower's mesh hasn't been placed yet
      */
-    public void attack(List<Enemy> enemies) {
-        int attacked = 0;
-        for (Enemy e : enemies) {
-            if (attacked > targets) return;
-            if (accessiblePathIndices.contains(e.getPathIndex())) {
-                attack(e, null, 0, false);
-                attacked++;
+    public void attack(EnemyStore enemies, CoverageIndex coverage, @Nullable BeamBuffer beams) {
+        if (targets <= 0) return;
+        switch (targeting) {
+            case FIRST -> {
+                // cells are sorted from the end of the path and buckets from the furthest enemy
+                int attacked = 0;
+                for (int i = 0; i < accessiblePathIndices.length && attacked < targets; i++) {
+                    int cell = accessiblePathIndices[i];
+                    for (int slot = coverage.first(cell); slot != -1 && attacked < targets; slot = coverage.next(slot)) {
+                        if (isTargetable(enemies, slot)) {
+                            attack(enemies, slot, beams);
+                            attacked++;
+                        }
+                    }
+                }
+            }
+            case LAST -> {
+                int attacked = 0;
+                for (int i = accessiblePathIndices.length - 1; i >= 0 && attacked < targets; i--) {
+                    int cell = accessiblePathIndices[i];
+                    for (int slot = coverage.last(cell); slot != -1 && attacked < targets; slot = coverage.prev(slot)) {
+                        if (isTargetable(enemies, slot)) {
+                            attack(enemies, slot, beams);
+                            attacked++;
+                        }
+                    }
+                }
+            }
+            case STRONGEST, WEAKEST -> {
+                if (targetHeap == null || targetHeap.capacity() != targets) {
+                    targetHeap = new TargetHeap(targets);
+                    targetSlots = new int[targets];
+                }
+                boolean strongest = targeting == TargetingMode.STRONGEST;
+                for (int cell : accessiblePathIndices) {
+                    for (int slot = coverage.first(cell); slot != -1; slot = coverage.next(slot)) {
+                        if (isTargetable(enemies, slot)) {
+                            int health = enemies.getEffectiveHealth(slot);
+                            targetHeap.offer(slot, strongest ? health : -health);
+                        }
+                    }
+                }
+                int count = targetHeap.drain(targetSlots);
+                for (int i = 0; i < count; i++) {
+                    attack(enemies, targetSlots[i], beams);
+                }
             }
         }
     }
 
-    private void attack(Enemy enemy, Player owner, double particleSpacing, boolean spawnParticles) {
-        Entity entity = enemy.getEntity();
-        Location enemyLoc = entity.getLocation().add(.5, 0, .5);
-        Location startLoc = mesh.fromRelativeLocation(particlePoint, enemyLoc.getWorld()).toCenterLocation();
+    private static boolean isTargetable(EnemyStore enemies, int slot) {
+        return enemies.isAlive(slot) && enemies.getEffectiveHealth(slot) > 0;
+    }
+
+    private void attack(EnemyStore enemies, int slot, @Nullable BeamBuffer beams) {
         if (mesh.getBottomLeft() == null) {
             throw new IllegalStateException("The tower must be placed before it can attack");
         }
-        cooldown = attackDelay;
-        enemy.damage(getDamage());
-        if (spawnParticles) {
-            // https://bukkit.org/threads/tutorial-how-to-calculate-vectors.138849
-            double distance = startLoc.distance(enemyLoc);
-            Vector vec = enemyLoc.clone().subtract(startLoc).toVector().normalize().multiply(particleSpacing);
-            ParticleBuilder spawner = new ParticleBuilder(particle)
-                    .receivers(owner)
-                    .location(startLoc)
-                    .count(0)
-                    .offset(0, 0, 0);
-            for (double pos = 0; pos < distance; pos += particleSpacing) {
-                // noinspection ConstantConditions
-                spawner.location().add(vec);
-                spawner.spawn();
-            }
+        if (beams != null) {
+            beams.add(this, enemies.getPathIndex(slot), BeamCache.bucketOf(enemies.getDistance(slot)));
+        }
+        enemies.queueDamage(slot, getDamage());
+        if (effect != EffectType.NONE) {
+            enemies.getEffects().apply(slot, effect, effectStrength, effectDuration);
         }
     }
 
     /**
-     * @return if the tower's cooldown has expired and it can attack
+     * Queues the cached line of particles from the tower's particle point to a bucket of a path cell. Does nothing if
+     * the tower has no {@link BeamCache} or the cell isn't in its range.
+     * @param pathIndex the path cell that the line ends in
+     * @param bucket the {@link BeamCache#bucketOf(int) bucket} of the cell that the line ends in
+     * @param channel the channel of the player that the particles are shown to
+     * @param stride only every stride-th particle point is shown (1 for all of them)
      */
-    public boolean canAttack() {
-        return cooldown <= 0;
+    public void spawnBeam(int pathIndex, int bucket, FxChannel channel, int stride) {
+        double[] points = beamCache != null ? beamCache.get(pathIndex, bucket) : null;
+        if (points == null) return;
+        for (int i = (stride - 1) * 3; i < points.length; i += stride * 3) {
+            channel.particle(particle, points[i], points[i + 1], points[i + 2]);
+        }
     }
 
     /**
-     * To be run every tick. Used to decrement the attack cooldown.
+     * @return the timer that the layout schedules the tower's attack cooldown with
      */
-    public void tick() {
-        if (cooldown > 0) {
-            cooldown--;
-        }
+    public TimerWheel.Timer<Tower> getCooldownTimer() {
+        return cooldownTimer;
+    }
+
+    /**
+     * @return if the tower's cooldown has expired and it can attack as soon as enemies are in range
+     */
+    public boolean isArmed() {
+        return armed;
+    }
+
+    public void setArmed(boolean armed) {
+        this.armed = armed;
     }
 
     /**
-     * Determine which parts of the layout's path are within the range of the tower
+     * Determine which parts of the layout's path are within the range of the tower, and cache the tower's beams to
+     * them if the tower is placed
      * @param x the tower's x-coordinate in the grid
      * @param y the tower's y-coordinate in the grid
      * @param grid the layout's grid
+     * @param path the layout's compiled path
+     * @param pathY the y-coordinate that enemies move at
+     * @param particleSpacing the amount of space between each particle of a beam
+     * @see BeamCache
      */
-    public void computeAccessiblePathIndices(int x, int y, Grid grid) {
+    public void computeAccessiblePathIndices(int x, int y, Grid grid, CompiledPath path, double pathY, double particleSpacing) {
         // make coords correspond to the tower's particle point
-        accessiblePathIndices.clear();
         x += particlePoint.x;
         y += particlePoint.z;
 
+        LinkedList<Integer> indices = new LinkedList<>();
         grid.forItemArea(x - range, y - range, range * 2, range * 2, (item) -> {
-            long prefix = System.currentTimeMillis();
             if (item instanceof Layout.PathItem pathItem) {
-                accessiblePathIndices.add(pathItem.index);
-                MessageUtils.logConsole(prefix + " || Accessible PI: " + pathItem.index, LogLevel.NOTICE);
+                indices.add(pathItem.index);
             }
             return item;
         });
+        // enemies further along the path are attacked first, so their cells come first
+        accessiblePathIndices = indices.stream().sorted(Comparator.reverseOrder()).mapToInt(Integer::intValue).toArray();
+
+        if (mesh.getBottomLeft() != null) {
+            Location start = mesh.fromRelativeLocation(particlePoint, mesh.getBottomLeft().getWorld()).toCenterLocation();
+            beamCache = new BeamCache(start.getX(), start.getY(), start.getZ(), accessiblePathIndices, path, pathY, particleSpacing);
+        } else {
+            beamCache = null;
+        }
+    }
+
+    /**
+     * Drops the tower's cached beams. Called when the tower is removed from its layout.
+     */
+    public void clearBeamCache() {
+        beamCache = null;
+    }
+
+    /**
+     * @return the path indices within the tower's range, sorted from the end of the path to the start
+     * @see #computeAccessiblePathIndices(int, int, Grid, CompiledPath, double, double)
+     */
+    public int[] getAccessiblePathIndices() {
+        return accessiblePathIndices;
+    }
+
+    /**
+     * Changes the number of enemies within the tower's range. Used by the layout's {@link CoverageIndex}.
+     * @param delta the amount to change the count by
+     */
+    public void addEnemiesInRange(int delta) {
+        enemiesInRange += delta;
+    }
+
+    /**
+     * @return if there are any enemies on the path cells that the tower can reach
+     */
+    public boolean hasEnemiesInRange() {
+        return enemiesInRange > 0;
     }
 
     public int getTargets() {
@@ -193,6 +289,14 @@ public class Tower {
         return attackDelay;
     }
 
+    public TargetingMode getTargeting() {
+        return targeting;
+    }
+
+    public void setTargeting(TargetingMode targeting) {
+        this.targeting = targeting;
+    }
+
     public Vector3 getParticlePoint() {
         return particlePoint;
     }
@@ -239,6 +343,30 @@ public class Tower {
         return damage;
     }
 
+    public EffectType getEffect() {
+        return effect;
+    }
+
+    public int getEffectStrength() {
+        return effectStrength;
+    }
+
+    public int getEffectDuration() {
+        return effectDuration;
+    }
+
+    /**
+     * Sets the status effect that the tower applies to the enemies it attacks
+     * @param effect the effect to apply
+     * @param strength the effect's strength (see {@link EffectType})
+     * @param duration the number of simulation steps the effect lasts
+     */
+    public void setEffect(EffectType effect, int strength, int duration) {
+        this.effect = effect;
+        effectStrength = strength;
+        effectDuration = duration;
+    }
+
     public BlockMesh getMesh() {
         return mesh;
     }
@@ -288,7 +416,7 @@ public class Tower {
                             !tdPlayer.getPlot().getLayout().placeTower(tower, blockLoc)
                     );
                 } else {
-                    event.getPlayer().playSound(event.getPlayer(), Sound.BLOCK_ANCIENT_DEBRIS_FALL, 1, .83f);
+                    FxChannel.of(event.getPlayer()).sound(Sound.BLOCK_ANCIENT_DEBRIS_FALL, event.getPlayer().getLocation(), 1, .83f);
                     MessageUtils.log(event.getPlayer(), "This item has an invalid tower id! Please report to staff", LogLevel.ERROR);
                     event.setCancelled(true);
                 }
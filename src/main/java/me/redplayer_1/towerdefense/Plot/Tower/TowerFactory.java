@@ -17,6 +17,10 @@ public class TowerFactory {
     private int targets;
     private int attackDelay;
     private int cost;
+    private TargetingMode targeting = TargetingMode.FIRST;
+    private EffectType effect = EffectType.NONE;
+    private int effectStrength = 0;
+    private int effectDuration = 0;
 
     private @Nullable BlockMesh mesh;
     private @Nullable MeshEditor editor;
@@ -47,6 +51,10 @@ public class TowerFactory {
         targets = tower.getTargets();
         attackDelay = tower.getAttackDelay();
         cost = tower.getCost();
+        targeting = tower.getTargeting();
+        effect = tower.getEffect();
+        effectStrength = tower.getEffectStrength();
+        effectDuration = tower.getEffectDuration();
         mesh = tower.getMesh();
         editor = null;
     }
@@ -101,6 +109,18 @@ public class TowerFactory {
         return this;
     }
 
+    public TowerFactory setTargeting(TargetingMode targeting) {
+        this.targeting = targeting;
+        return this;
+    }
+
+    public TowerFactory setEffect(EffectType effect, int strength, int duration) {
+        this.effect = effect;
+        effectStrength = strength;
+        effectDuration = duration;
+        return this;
+    }
+
     public TowerFactory setCost(int cost) {
         this.cost = cost;
         return this;
@@ -123,6 +143,8 @@ public class TowerFactory {
      * </ul>
      * Optional fields (or ones with a default value) are:<ul>
      *     <li>Damage</li>
+     *     <li>Targeting (defaults to {@link TargetingMode#FIRST FIRST})</li>
+     *     <li>Effect (defaults to {@link EffectType#NONE NONE})</li>
      * </ul>
      * @return the new tower
      * @throws IllegalStateException if any of the required fields are not set or have invalid values
@@ -133,9 +155,12 @@ public class TowerFactory {
         ) {
             throw new IllegalStateException("Missing required factory field(s)");
         }
-        return new Tower(
+        Tower tower = new Tower(
                 name, item, mesh != null? mesh : editor.close(true), particle,
                 particlePoint, range, damage, cost, targets, attackDelay
         );
+        tower.setTargeting(targeting);
+        tower.setEffect(effect, effectStrength, effectDuration);
+        return tower;
     }
 }
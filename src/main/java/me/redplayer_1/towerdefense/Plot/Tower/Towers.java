@@ -50,6 +50,8 @@ public final class Towers {
                         tower.getParticlePoint(), tower.getRange(), tower.getDamage(),
                         tower.getCost(), tower.getTargets(), tower.getAttackDelay()
                 );
+                template.setTargeting(tower.getTargeting());
+                template.setEffect(tower.getEffect(), tower.getEffectStrength(), tower.getEffectDuration());
                 break;
             }
         }
@@ -108,9 +110,13 @@ public final class Towers {
             towerSec.set("particle", tower.getParticle().name());
             towerSec.set("range", tower.getRange());
             towerSec.set("damage", tower.getDamage());
+            towerSec.set("effect", tower.getEffect().name());
+            towerSec.set("effectStrength", tower.getEffectStrength());
+            towerSec.set("effectDuration", tower.getEffectDuration());
             towerSec.set("cost", tower.getCost());
             towerSec.set("targets", tower.getTargets());
             towerSec.set("attackDelay", tower.getAttackDelay());
+            towerSec.set("targeting", tower.getTargeting().name());
         }
     }
 
@@ -123,7 +129,7 @@ public final class Towers {
             if (!section.isConfigurationSection(towerName)) continue;
             try {
                 ConfigurationSection towerSec = Objects.requireNonNull(section.getConfigurationSection(towerName));
-                add(new Tower(
+                Tower tower = new Tower(
                         towerName,
                         Objects.requireNonNull(towerSec.getItemStack("item")),
                         BlockMesh.deserialize(towerSec.getConfigurationSection("mesh")),
@@ -134,7 +140,22 @@ public final class Towers {
                         towerSec.getInt("cost"),
                         towerSec.getInt("targets"),
                         towerSec.getInt("attackDelay")
-                ));
+                );
+                TargetingMode targeting = TargetingMode.FIRST;
+                try {
+                    targeting = TargetingMode.valueOf(towerSec.getString("targeting", targeting.name()).toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    MessageUtils.logConsole("Invalid targeting mode for Tower \"" + towerName + "\", using " + targeting.name(), LogLevel.WARN);
+                }
+                tower.setTargeting(targeting);
+                EffectType effect = EffectType.NONE;
+                try {
+                    effect = EffectType.valueOf(towerSec.getString("effect", effect.name()).toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    MessageUtils.logConsole("Invalid effect for Tower \"" + towerName + "\", using " + effect.name(), LogLevel.WARN);
+                }
+                tower.setEffect(effect, towerSec.getInt("effectStrength"), towerSec.getInt("effectDuration"));
+                add(tower);
             } catch (InvalidConfigurationException | NullPointerException | IllegalArgumentException e) {
                 MessageUtils.logConsole("Invalid configuration for Tower \"" + towerName + "\"", LogLevel.WARN);
             }
@@ -5,8 +5,12 @@ import me.redplayer_1.towerdefense.Command.PlotCommand;
 import me.redplayer_1.towerdefense.Command.ShopCommand;
 import me.redplayer_1.towerdefense.Command.Tower.TowerCommand;
 import me.redplayer_1.towerdefense.Geometry.MeshEditor;
+import me.redplayer_1.towerdefense.Plot.Enemy.Enemies;
+import me.redplayer_1.towerdefense.Plot.Layout.GameLoop;
 import me.redplayer_1.towerdefense.Plot.Layout.Layout;
 import me.redplayer_1.towerdefense.Plot.Layout.LayoutEditor;
+import me.redplayer_1.towerdefense.Plot.Layout.WaveManager;
+import me.redplayer_1.towerdefense.Plot.Layout.WaveTable;
 import me.redplayer_1.towerdefense.Plot.Layout.Layouts;
 import me.redplayer_1.towerdefense.Plot.Plot;
 import me.redplayer_1.towerdefense.Plot.Tower.Tower;
@@ -33,6 +37,8 @@ public final class TowerDefense extends JavaPlugin {
     public Config mainConfig;
     public Config layoutTemplates;
     public Config towerTemplates;
+    public Config enemyTemplates;
+    public Config waves;
 
     @Override
     public void onEnable() {
@@ -41,6 +47,8 @@ public final class TowerDefense extends JavaPlugin {
             mainConfig = new Config("Config");
             layoutTemplates = new Config("LayoutTemplates");
             towerTemplates = new Config("TowerTemplates");
+            enemyTemplates = new Config("EnemyTemplates");
+            waves = new Config("Waves");
         } catch (IOException | InvalidConfigurationException e) {
             MessageUtils.logConsole("Couldn't load configuration files!", LogLevel.CRITICAL);
             getLogger().severe(e.getMessage());
@@ -72,10 +80,22 @@ public final class TowerDefense extends JavaPlugin {
         // Load tower templates
         Towers.deserialize(towerTemplates.getConfig());
         MessageUtils.logConsole("Loaded " + Towers.getTowers().size() + " tower templates", LogLevel.SUCCESS);
+
+        // Load enemy templates
+        Enemies.deserialize(enemyTemplates.getConfig());
+        MessageUtils.logConsole("Loaded " + Enemies.getArchetypes().size() + " enemy templates", LogLevel.SUCCESS);
+
+        // Compile wave definitions (requires enemy templates)
+        WaveManager.setTable(WaveTable.compile(waves.getConfig()));
+        MessageUtils.logConsole("Compiled wave definitions", LogLevel.SUCCESS);
+
+        GameLoop.start();
     }
 
     @Override
     public void onDisable() {
+        GameLoop.stop();
+
         // Close any open editors
         LayoutEditor.closeAll();
         MeshEditor.closeAll();
@@ -88,13 +108,15 @@ public final class TowerDefense extends JavaPlugin {
             layout.serialize(layoutConfig);
         }
         Towers.serialize(towerTemplates.getConfig());
+        Enemies.serialize(enemyTemplates.getConfig());
         try {
             mainConfig.save();
             layoutTemplates.save();
             towerTemplates.save();
+            enemyTemplates.save();
         } catch (IOException e) {
             MessageUtils.logConsole(
-                    "An IOException occurred whilst serializing the main, layout, and/or tower config(s)",
+                    "An IOException occurred whilst serializing the main, layout, tower, and/or enemy config(s)",
                     LogLevel.CRITICAL
             );
         }
@@ -0,0 +1,256 @@
+package me.redplayer_1.towerdefense.Util;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Collects the particles, sounds, and action bar messages sent to a player during a tick and sends them all at once
+ * when the channel is {@link #flushAll() flushed} at the end of the tick.
+ * <p>
+ * Particles are grouped by type into one-block cells, and each cell is sent as a single packet that uses the
+ * particle count and offset to spread its particles over the cell's points, instead of one packet per point. Cells
+ * hit by more than one effect (such as overlapping beams) are merged, and the total number of particles sent to the
+ * player per tick is limited by the particle budget. A sound that is queued more than once in the same block with
+ * the same pitch is played once, and only the last action bar message is shown.
+ */
+public class FxChannel {
+    private static final HashMap<Player, FxChannel> channels = new HashMap<>();
+    private static final int MAX_CELL_PARTICLES = 8; // the most particles shown in a cell (about one per .15 blocks)
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_SOUNDS = 16; // the most different sounds played per tick
+    private static int particleBudget = 400; // particles per player per tick
+
+    private final Player player;
+    // particle cells, indexed through an open-addressing table of cell keys
+    private long[] tableKeys = new long[INITIAL_CAPACITY * 2];
+    private int[] tableCells = new int[INITIAL_CAPACITY * 2]; // cell index + 1, or 0 if the table slot is empty
+    private Particle[] cellParticle = new Particle[INITIAL_CAPACITY];
+    private int[] cellCount = new int[INITIAL_CAPACITY];
+    private double[] cellBounds = new double[INITIAL_CAPACITY * 6]; // min x, y, z, then max x, y, z of each cell
+    private int cellSize = 0;
+    private int particleCount = 0;
+    private final Sound[] sounds = new Sound[MAX_SOUNDS];
+    private final double[] soundPoints = new double[MAX_SOUNDS * 3];
+    private final float[] soundVolumes = new float[MAX_SOUNDS];
+    private final float[] soundPitches = new float[MAX_SOUNDS];
+    private int soundCount = 0;
+    private @Nullable Component actionBar = null;
+
+    private FxChannel(Player player) {
+        this.player = player;
+    }
+
+    /**
+     * @return the player's channel, which is created if it doesn't exist
+     */
+    public static FxChannel of(Player player) {
+        return channels.computeIfAbsent(player, FxChannel::new);
+    }
+
+    /**
+     * Removes the player's channel without sending its queued effects
+     */
+    public static void remove(Player player) {
+        channels.remove(player);
+    }
+
+    /**
+     * Sends the queued effects of every channel. Called once at the end of every tick.
+     */
+    public static void flushAll() {
+        for (FxChannel channel : channels.values()) {
+            channel.flush();
+        }
+    }
+
+    /**
+     * Queues a particle
+     * @param particle the type of particle
+     * @param x the particle's x-coordinate
+     * @param y the particle's y-coordinate
+     * @param z the particle's z-coordinate
+     */
+    public void particle(Particle particle, double x, double y, double z) {
+        int blockX = (int) Math.floor(x);
+        int blockY = (int) Math.floor(y);
+        int blockZ = (int) Math.floor(z);
+        // 12 bits of particle type, 20 bits of x, 12 bits of y, and 20 bits of z
+        long key = ((long) particle.ordinal() << 52) | ((blockX & 0xFFFFFL) << 32) | ((blockY & 0xFFFL) << 20) | (blockZ & 0xFFFFFL);
+        int cell = findCell(key, particle);
+        if (cellCount[cell] >= MAX_CELL_PARTICLES) return;
+        int b = cell * 6;
+        if (cellCount[cell] == 0) {
+            cellBounds[b] = cellBounds[b + 3] = x;
+            cellBounds[b + 1] = cellBounds[b + 4] = y;
+            cellBounds[b + 2] = cellBounds[b + 5] = z;
+        } else {
+            cellBounds[b] = Math.min(cellBounds[b], x);
+            cellBounds[b + 1] = Math.min(cellBounds[b + 1], y);
+            cellBounds[b + 2] = Math.min(cellBounds[b + 2], z);
+            cellBounds[b + 3] = Math.max(cellBounds[b + 3], x);
+            cellBounds[b + 4] = Math.max(cellBounds[b + 4], y);
+            cellBounds[b + 5] = Math.max(cellBounds[b + 5], z);
+        }
+        cellCount[cell]++;
+        particleCount++;
+    }
+
+    /**
+     * Queues a sound. If the same sound with the same pitch is already queued in the same block this tick, only the
+     * louder volume is kept.
+     * @param sound the sound to play
+     * @param x the x-coordinate to play the sound at
+     * @param y the y-coordinate to play the sound at
+     * @param z the z-coordinate to play the sound at
+     * @param volume the sound's volume
+     * @param pitch the sound's pitch
+     */
+    public void sound(Sound sound, double x, double y, double z, float volume, float pitch) {
+        for (int i = 0; i < soundCount; i++) {
+            int p = i * 3;
+            if (sounds[i] == sound && soundPitches[i] == pitch && sameBlock(soundPoints[p], x)
+                    && sameBlock(soundPoints[p + 1], y) && sameBlock(soundPoints[p + 2], z)) {
+                soundVolumes[i] = Math.max(soundVolumes[i], volume);
+                return;
+            }
+        }
+        if (soundCount == MAX_SOUNDS) return;
+        sounds[soundCount] = sound;
+        soundPoints[soundCount * 3] = x;
+        soundPoints[soundCount * 3 + 1] = y;
+        soundPoints[soundCount * 3 + 2] = z;
+        soundVolumes[soundCount] = volume;
+        soundPitches[soundCount] = pitch;
+        soundCount++;
+    }
+
+    /**
+     * Queues a sound at a location
+     * @see #sound(Sound, double, double, double, float, float)
+     */
+    public void sound(Sound sound, Location location, float volume, float pitch) {
+        sound(sound, location.getX(), location.getY(), location.getZ(), volume, pitch);
+    }
+
+    private static boolean sameBlock(double a, double b) {
+        return Math.floor(a) == Math.floor(b);
+    }
+
+    /**
+     * Queues an action bar message. Replaces any message queued earlier in the tick.
+     * @param message the message to show
+     */
+    public void actionBar(Component message) {
+        actionBar = message;
+    }
+
+    /**
+     * Sends the queued effects to the player and clears the queue
+     */
+    private void flush() {
+        if (cellSize > 0) {
+            // when over budget, every cell is thinned out evenly; if there are still too many, cells are skipped evenly
+            double scale = Math.min(1, (double) particleBudget / particleCount);
+            int stride = Math.max(1, (cellSize + particleBudget - 1) / particleBudget);
+            for (int cell = 0; cell < cellSize; cell += stride) {
+                int b = cell * 6;
+                int count = Math.max(1, (int) (cellCount[cell] * scale));
+                // the offset is the spread of the particles around the center of the cell's points
+                player.spawnParticle(
+                        cellParticle[cell],
+                        (cellBounds[b] + cellBounds[b + 3]) / 2,
+                        (cellBounds[b + 1] + cellBounds[b + 4]) / 2,
+                        (cellBounds[b + 2] + cellBounds[b + 5]) / 2,
+                        count,
+                        (cellBounds[b + 3] - cellBounds[b]) / 2,
+                        (cellBounds[b + 4] - cellBounds[b + 1]) / 2,
+                        (cellBounds[b + 5] - cellBounds[b + 2]) / 2,
+                        0
+                );
+            }
+            Arrays.fill(tableCells, 0);
+            Arrays.fill(cellParticle, 0, cellSize, null);
+            Arrays.fill(cellCount, 0, cellSize, 0);
+            cellSize = 0;
+            particleCount = 0;
+        }
+        if (soundCount > 0) {
+            Location location = player.getLocation();
+            for (int i = 0; i < soundCount; i++) {
+                location.set(soundPoints[i * 3], soundPoints[i * 3 + 1], soundPoints[i * 3 + 2]);
+                player.playSound(location, sounds[i], soundVolumes[i], soundPitches[i]);
+                sounds[i] = null;
+            }
+            soundCount = 0;
+        }
+        if (actionBar != null) {
+            player.sendActionBar(actionBar);
+            actionBar = null;
+        }
+    }
+
+    /**
+     * @return the index of the cell with the key, which is added if it doesn't exist
+     */
+    private int findCell(long key, Particle particle) {
+        int mask = tableKeys.length - 1;
+        int i = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (tableCells[i] != 0) {
+            if (tableKeys[i] == key) {
+                return tableCells[i] - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        if (cellSize == cellParticle.length) {
+            growCells();
+            return findCell(key, particle);
+        }
+        int cell = cellSize++;
+        tableKeys[i] = key;
+        tableCells[i] = cell + 1;
+        cellParticle[cell] = particle;
+        return cell;
+    }
+
+    /**
+     * Doubles the number of cells and rebuilds the table, which is kept at most half full
+     */
+    private void growCells() {
+        int capacity = cellParticle.length * 2;
+        cellParticle = Arrays.copyOf(cellParticle, capacity);
+        cellCount = Arrays.copyOf(cellCount, capacity);
+        cellBounds = Arrays.copyOf(cellBounds, capacity * 6);
+        long[] oldKeys = tableKeys;
+        int[] oldCells = tableCells;
+        tableKeys = new long[capacity * 2];
+        tableCells = new int[capacity * 2];
+        int mask = tableKeys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldCells[j] == 0) continue;
+            int i = Long.hashCode(oldKeys[j] * 0x9E3779B97F4A7C15L) & mask;
+            while (tableCells[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            tableKeys[i] = oldKeys[j];
+            tableCells[i] = oldCells[j];
+        }
+    }
+
+    /**
+     * @param budget the most particles sent to a player per tick
+     */
+    public static void setParticleBudget(int budget) {
+        particleBudget = Math.max(1, budget);
+    }
+
+    public static int getParticleBudget() {
+        return particleBudget;
+    }
+}
@@ -0,0 +1,179 @@
+package me.redplayer_1.towerdefense.Util;
+
+import java.util.function.Consumer;
+
+/**
+ * A hashed timer wheel. Timers are kept in a ring of buckets indexed by their deadline, so scheduling and cancelling
+ * a timer is constant time and {@link #advance(Consumer) advancing} the wheel only visits the timers in one bucket.
+ * Timers are reusable nodes that are owned by the scheduled object, so scheduling doesn't create any objects.
+ * @param <T> the type of object that timers notify
+ */
+public class TimerWheel<T> {
+    private final Timer<T>[] buckets;
+    private final int mask;
+    private long tick = 0;
+    private int size = 0;
+
+    /**
+     * Creates a new empty wheel
+     * @param buckets the number of buckets (rounded up to a power of two). Delays longer than this still work, but
+     *                their timers are visited once per rotation until they expire.
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(int buckets) {
+        int capacity = Integer.highestOneBit(Math.max(buckets, 1) - 1) << 1;
+        this.buckets = (Timer<T>[]) new Timer[Math.max(capacity, 1)];
+        mask = this.buckets.length - 1;
+    }
+
+    /**
+     * Schedules a timer to expire after a delay. If the timer is already scheduled, it is rescheduled.
+     * @param timer the timer to schedule
+     * @param delay the number of {@link #advance(Consumer) advances} until the timer expires (at least one)
+     */
+    public void schedule(Timer<T> timer, int delay) {
+        cancel(timer);
+        timer.deadline = tick + Math.max(delay, 1);
+        int bucket = (int) (timer.deadline & mask);
+        timer.prev = null;
+        timer.next = buckets[bucket];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        buckets[bucket] = timer;
+        timer.wheel = this;
+        size++;
+    }
+
+    /**
+     * Cancels a timer. Does nothing if the timer isn't scheduled on this wheel.
+     * @param timer the timer to cancel
+     * @return if the timer was scheduled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.wheel != this) return false;
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[(int) (timer.deadline & mask)] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.next = null;
+        timer.prev = null;
+        timer.wheel = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel by one tick and notifies every timer that expires.
+     * @param onExpire called with the value of every expired timer. It may reschedule the expired timer, but must not
+     *                 schedule or cancel any other timer, since that could unlink the timers that are still to be
+     *                 visited.
+     */
+    public void advance(Consumer<? super T> onExpire) {
+        tick++;
+        Timer<T> timer = buckets[(int) (tick & mask)];
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            if (timer.deadline <= tick) {
+                cancel(timer);
+                onExpire.accept(timer.value);
+            }
+            timer = next;
+        }
+    }
+
+    /**
+     * Advances the wheel by a number of ticks at once and notifies every timer that expires. Advancing by at least a
+     * full rotation visits every bucket once instead of once per tick.
+     * @param ticks the number of ticks to advance by
+     * @param onExpire called with the value of every expired timer, with the same restrictions as
+     *                 {@link #advance(Consumer)}. A rescheduled timer is relative to the last tick.
+     */
+    public void advance(long ticks, Consumer<? super T> onExpire) {
+        if (ticks < buckets.length) {
+            for (long i = 0; i < ticks; i++) {
+                advance(onExpire);
+            }
+            return;
+        }
+        tick += ticks;
+        for (int i = 0; i < buckets.length; i++) {
+            Timer<T> timer = buckets[i];
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                if (timer.deadline <= tick) {
+                    cancel(timer);
+                    onExpire.accept(timer.value);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    /**
+     * Cancels every scheduled timer
+     */
+    public void clear() {
+        for (int i = 0; i < buckets.length; i++) {
+            while (buckets[i] != null) {
+                cancel(buckets[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the number of times the wheel has been advanced
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return the number of scheduled timers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A reusable timer that can be scheduled on one wheel at a time
+     * @param <T> the type of object that the timer notifies
+     */
+    public static class Timer<T> {
+        private final T value;
+        private long deadline;
+        private Timer<T> next;
+        private Timer<T> prev;
+        private TimerWheel<T> wheel; // the wheel the timer is scheduled on, or null
+
+        /**
+         * Creates a new unscheduled timer
+         * @param value the object passed to the wheel's callback when the timer expires
+         */
+        public Timer(T value) {
+            this.value = value;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return if the timer is scheduled on a wheel
+         */
+        public boolean isScheduled() {
+            return wheel != null;
+        }
+
+        /**
+         * @return the number of advances until the timer expires, or 0 if it isn't scheduled
+         */
+        public long getRemaining() {
+            return wheel != null ? deadline - wheel.tick : 0;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import me.redplayer_1.towerdefense.Geometry.Direction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledPathTest {
+    private static final double EPSILON = 1e-9;
+    private static final int ONE = CompiledPath.ONE;
+
+    // two blocks east, then one block north
+    private final CompiledPath path = new CompiledPath(
+            new Direction[] {Direction.EAST, Direction.EAST, Direction.NORTH}, .5, .5
+    );
+
+    @Test
+    void lengthIsOneBlockPerTile() {
+        assertEquals(3 * ONE, path.getLength());
+    }
+
+    @Test
+    void cellAtRoundsDownAndClampsToThePath() {
+        assertEquals(0, path.cellAt(0));
+        assertEquals(0, path.cellAt(ONE - 1));
+        assertEquals(1, path.cellAt(ONE));
+        assertEquals(2, path.cellAt(2 * ONE + ONE / 2));
+        assertEquals(0, path.cellAt(-ONE));
+        assertEquals(2, path.cellAt(path.getLength() + ONE));
+    }
+
+    @Test
+    void positionsFollowTheSegments() {
+        assertEquals(.5, path.xAt(0), EPSILON);
+        assertEquals(.5, path.zAt(0), EPSILON);
+        assertEquals(1, path.xAt(ONE / 2), EPSILON);
+        assertEquals(.5, path.zAt(ONE / 2), EPSILON);
+        // the turn
+        assertEquals(2.5, path.xAt(2 * ONE), EPSILON);
+        assertEquals(.5, path.zAt(2 * ONE), EPSILON);
+        assertEquals(2.5, path.xAt(2 * ONE + ONE / 2), EPSILON);
+        assertEquals(0, path.zAt(2 * ONE + ONE / 2), EPSILON);
+        // the end
+        assertEquals(2.5, path.xAt(path.getLength()), EPSILON);
+        assertEquals(-.5, path.zAt(path.getLength()), EPSILON);
+    }
+
+    @Test
+    void nextCornerIsTheNextTurnOrTheEnd() {
+        assertEquals(2 * ONE, path.nextCornerDistance(0));
+        assertEquals(2 * ONE, path.nextCornerDistance(2 * ONE - 1));
+        assertEquals(path.getLength(), path.nextCornerDistance(2 * ONE));
+    }
+
+    @Test
+    void straightPathHasNoCorners() {
+        CompiledPath straight = new CompiledPath(
+                new Direction[] {Direction.SOUTH, Direction.SOUTH, Direction.SOUTH, Direction.SOUTH}, 0, 0
+        );
+        assertEquals(straight.getLength(), straight.nextCornerDistance(0));
+        assertEquals(3.5, straight.zAt(7 * ONE / 2), EPSILON);
+    }
+
+    @Test
+    void everyStepMovesTheSameDistanceAlongThePath() {
+        // a tenth of a block per step, like the default archetype
+        int speed = (int) Math.round(.1 * ONE);
+        double expected = (double) speed / ONE;
+        for (int distance = 0; distance + speed <= path.getLength(); distance += speed) {
+            // segments are axis-aligned, so the distance along the path is the manhattan distance, even around turns
+            double moved = Math.abs(path.xAt(distance + speed) - path.xAt(distance))
+                    + Math.abs(path.zAt(distance + speed) - path.zAt(distance));
+            assertEquals(expected, moved, EPSILON, "step from " + distance);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CoverageIndexTest {
+    private final CoverageIndex index = new CoverageIndex(4);
+
+    /**
+     * @return the enemies in the cell's bucket from first to last, checking that the links agree in both directions
+     */
+    private List<Integer> bucket(int cell) {
+        List<Integer> slots = new ArrayList<>();
+        int previous = -1;
+        for (int slot = index.first(cell); slot != -1; slot = index.next(slot)) {
+            assertEquals(previous, index.prev(slot), "prev of " + slot);
+            slots.add(slot);
+            previous = slot;
+        }
+        assertEquals(previous, index.last(cell), "last of cell " + cell);
+        assertEquals(slots.size(), index.size(cell), "size of cell " + cell);
+        return slots;
+    }
+
+    @Test
+    void bucketsAreOrderedFurthestFirst() {
+        index.add(0, 1, 100);
+        index.add(1, 1, 50);
+        index.add(2, 1, 200);
+        index.add(3, 1, 75);
+        assertEquals(List.of(2, 0, 3, 1), bucket(1));
+        assertEquals(List.of(), bucket(0));
+    }
+
+    @Test
+    void enemiesWithEqualProgressKeepTheirEntryOrder() {
+        index.add(0, 0, 10);
+        index.add(1, 0, 10);
+        assertEquals(List.of(0, 1), bucket(0));
+    }
+
+    @Test
+    void overtakingEnemyMovesAheadOfSlowerOnes() {
+        index.add(0, 2, 300);
+        index.add(1, 2, 200);
+        index.add(2, 2, 100);
+        index.update(2, 250);
+        assertEquals(List.of(0, 2, 1), bucket(2));
+        index.update(2, 400);
+        assertEquals(List.of(2, 0, 1), bucket(2));
+    }
+
+    @Test
+    void updateWithoutOvertakingKeepsTheOrder() {
+        index.add(0, 0, 300);
+        index.add(1, 0, 100);
+        index.update(1, 300);
+        index.update(0, 350);
+        assertEquals(List.of(0, 1), bucket(0));
+    }
+
+    @Test
+    void movingToAnotherCellPlacesTheEnemyByProgress() {
+        index.add(0, 1, 1100);
+        index.add(1, 1, 1050);
+        index.add(2, 0, 1000);
+        index.move(2, 1, 1080);
+        assertEquals(List.of(), bucket(0));
+        assertEquals(List.of(0, 2, 1), bucket(1));
+        // moving to the cell the enemy is already in does nothing
+        index.move(2, 1, 1200);
+        assertEquals(List.of(0, 2, 1), bucket(1));
+    }
+
+    @Test
+    void removeRelinksTheBucket() {
+        index.add(0, 3, 30);
+        index.add(1, 3, 20);
+        index.add(2, 3, 10);
+        index.remove(1);
+        assertEquals(List.of(0, 2), bucket(3));
+        index.remove(0);
+        index.remove(2);
+        assertEquals(List.of(), bucket(3));
+        // removing an enemy that isn't indexed does nothing
+        index.remove(2);
+        index.remove(100);
+        assertEquals(List.of(), bucket(3));
+    }
+
+    @Test
+    void slotsBeyondTheInitialCapacityAreIndexed() {
+        index.add(40, 2, 5);
+        index.add(3, 2, 6);
+        assertEquals(List.of(3, 40), bucket(2));
+    }
+
+    @Test
+    void clearEmptiesEveryBucket() {
+        index.add(0, 0, 1);
+        index.add(1, 3, 2);
+        index.clear();
+        for (int cell = 0; cell < 4; cell++) {
+            assertEquals(List.of(), bucket(cell));
+        }
+        index.add(1, 0, 5);
+        assertEquals(List.of(1), bucket(0));
+    }
+}
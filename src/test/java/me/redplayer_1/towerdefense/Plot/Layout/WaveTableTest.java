@@ -0,0 +1,100 @@
+package me.redplayer_1.towerdefense.Plot.Layout;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WaveTableTest {
+    private static WaveTable compile(String yaml) throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(yaml);
+        return WaveTable.compile(config);
+    }
+
+    /**
+     * Checks a table against the formulas that waves used before they were data-driven
+     */
+    private static void assertBaselineWave(WaveTable table, int wave) {
+        int health = (int) Math.pow(wave, 2) + 9;
+        assertEquals((int) Math.pow(wave, .5) + 3, table.getEnemyCount(wave), "enemy count of wave " + wave);
+        assertEquals(health, table.getEnemyHealth(wave), "enemy health of wave " + wave);
+        assertEquals((int) (health * .2 + wave), table.getEnemyCoinYield(wave), "enemy coins of wave " + wave);
+        assertEquals(0, table.getCompletionCoinYield(wave), "completion coins of wave " + wave);
+        // enemies used to spawn every 20 ticks
+        assertEquals(1, table.getSpawnInterval(wave), 1e-9, "spawn interval of wave " + wave);
+        assertFalse(table.isEndless(wave), "wave " + wave + " is endless");
+    }
+
+    @Test
+    void defaultTableMatchesTheOriginalFormulas() {
+        for (int wave = 1; wave <= 500; wave++) {
+            assertBaselineWave(WaveTable.DEFAULT, wave);
+        }
+    }
+
+    @Test
+    void emptyDefinitionsMatchTheOriginalFormulas() throws InvalidConfigurationException {
+        WaveTable table = compile("");
+        // inside and past the lookup table
+        for (int wave = 1; wave <= 150; wave++) {
+            assertBaselineWave(table, wave);
+        }
+    }
+
+    @Test
+    void curvesReplaceTheDefaults() throws InvalidConfigurationException {
+        WaveTable table = compile("""
+                enemy_count:
+                  base: 1
+                  coefficient: 2
+                  exponent: 1
+                spawn_interval:
+                  base: 2
+                """);
+        assertEquals(7, table.getEnemyCount(3));
+        assertEquals(2, table.getSpawnInterval(3), 1e-9);
+        // attributes without definitions keep their default curves
+        assertEquals(18, table.getEnemyHealth(3));
+    }
+
+    @Test
+    void overridesOnlyReplaceTheirWave() throws InvalidConfigurationException {
+        WaveTable table = compile("""
+                table_size: 10
+                overrides:
+                  5:
+                    enemy_count: 42
+                    spawn_interval: .5
+                  20:
+                    completion_coins: 100
+                """);
+        assertEquals(42, table.getEnemyCount(5));
+        assertEquals(.5, table.getSpawnInterval(5), 1e-9);
+        assertEquals(34, table.getEnemyHealth(5));
+        assertEquals(100, table.getCompletionCoinYield(20));
+        assertBaselineWave(table, 4);
+        assertBaselineWave(table, 6);
+        // waves past the last override are computed from the curves
+        assertBaselineWave(table, 21);
+    }
+
+    @Test
+    void endlessWavesAreDenser() throws InvalidConfigurationException {
+        WaveTable table = compile("""
+                endless:
+                  from_wave: 10
+                  density: 4
+                """);
+        assertBaselineWave(table, 9);
+        assertTrue(table.isEndless(10));
+        assertTrue(table.isEndless(200));
+        assertEquals((int) ((Math.pow(10, .5) + 3) * 4), table.getEnemyCount(10));
+        assertEquals(.25, table.getSpawnInterval(10), 1e-9);
+        // health and coins aren't affected
+        assertEquals(109, table.getEnemyHealth(10));
+    }
+}
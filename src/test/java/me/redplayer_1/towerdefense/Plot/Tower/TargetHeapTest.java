@@ -0,0 +1,86 @@
+package me.redplayer_1.towerdefense.Plot.Tower;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TargetHeapTest {
+    @Test
+    void keepsTheLargestKeysInDescendingOrder() {
+        TargetHeap heap = new TargetHeap(3);
+        int[] keys = {5, 1, 9, 7, 3};
+        for (int slot = 0; slot < keys.length; slot++) {
+            heap.offer(slot, keys[slot]);
+        }
+        int[] out = new int[3];
+        assertEquals(3, heap.drain(out));
+        assertArrayEquals(new int[] {2, 3, 0}, out);
+    }
+
+    @Test
+    void keepsEveryEnemyWhileNotFull() {
+        TargetHeap heap = new TargetHeap(4);
+        heap.offer(7, 10);
+        heap.offer(8, 20);
+        int[] out = new int[4];
+        assertEquals(2, heap.drain(out));
+        assertArrayEquals(new int[] {8, 7}, Arrays.copyOf(out, 2));
+    }
+
+    @Test
+    void drainEmptiesTheHeap() {
+        TargetHeap heap = new TargetHeap(2);
+        heap.offer(0, 1);
+        int[] out = new int[2];
+        heap.drain(out);
+        assertEquals(0, heap.drain(out));
+        heap.offer(1, 4);
+        assertEquals(1, heap.drain(out));
+        assertEquals(1, out[0]);
+    }
+
+    @Test
+    void equalKeyDoesNotReplaceAKeptEnemy() {
+        TargetHeap heap = new TargetHeap(1);
+        heap.offer(0, 5);
+        heap.offer(1, 5);
+        int[] out = new int[1];
+        heap.drain(out);
+        assertEquals(0, out[0]);
+    }
+
+    @Test
+    void matchesSortingForRandomKeys() {
+        Random random = new Random(42);
+        for (int round = 0; round < 100; round++) {
+            int count = random.nextInt(50);
+            int capacity = 1 + random.nextInt(8);
+            // distinct keys so that the expected order is unique
+            int[] keys = IntStream.range(0, count).map(i -> i * 3).toArray();
+            for (int i = count - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int key = keys[i];
+                keys[i] = keys[j];
+                keys[j] = key;
+            }
+            TargetHeap heap = new TargetHeap(capacity);
+            for (int slot = 0; slot < count; slot++) {
+                heap.offer(slot, keys[slot]);
+            }
+            int[] expected = IntStream.range(0, count).boxed()
+                    .sorted(Comparator.comparingInt(slot -> -keys[slot]))
+                    .limit(capacity)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int[] out = new int[capacity];
+            int drained = heap.drain(out);
+            assertArrayEquals(expected, Arrays.copyOf(out, drained), "round " + round);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package me.redplayer_1.towerdefense.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+    private final TimerWheel<String> wheel = new TimerWheel<>(8);
+    private final List<String> expired = new ArrayList<>();
+
+    private TimerWheel.Timer<String> schedule(String value, int delay) {
+        TimerWheel.Timer<String> timer = new TimerWheel.Timer<>(value);
+        wheel.schedule(timer, delay);
+        return timer;
+    }
+
+    /**
+     * Advances the wheel one tick at a time
+     * @return the tick that the value expired on, or -1 if it didn't expire
+     */
+    private long advanceUntil(String value, int maxTicks) {
+        for (int i = 0; i < maxTicks; i++) {
+            wheel.advance(expired::add);
+            if (expired.contains(value)) {
+                return wheel.getTick();
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void timerExpiresAfterItsDelay() {
+        TimerWheel.Timer<String> timer = schedule("a", 3);
+        assertTrue(timer.isScheduled());
+        assertEquals(3, timer.getRemaining());
+        assertEquals(3, advanceUntil("a", 10));
+        assertFalse(timer.isScheduled());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void delayLongerThanTheWheelWaitsForTheRightRotation() {
+        schedule("a", 21);
+        assertEquals(21, advanceUntil("a", 30));
+    }
+
+    @Test
+    void delayBelowOneExpiresOnTheNextTick() {
+        schedule("a", 0);
+        assertEquals(1, advanceUntil("a", 5));
+    }
+
+    @Test
+    void cancelledTimerNeverExpires() {
+        TimerWheel.Timer<String> timer = schedule("a", 2);
+        schedule("b", 2);
+        assertTrue(wheel.cancel(timer));
+        assertFalse(wheel.cancel(timer));
+        assertEquals(1, wheel.size());
+        assertEquals(-1, advanceUntil("a", 20));
+        assertEquals(List.of("b"), expired);
+    }
+
+    @Test
+    void reschedulingMovesTheDeadline() {
+        TimerWheel.Timer<String> timer = schedule("a", 2);
+        wheel.schedule(timer, 5);
+        assertEquals(1, wheel.size());
+        assertEquals(5, advanceUntil("a", 10));
+    }
+
+    @Test
+    void expiredTimerCanRescheduleItselfFromTheCallback() {
+        TimerWheel.Timer<String> periodic = schedule("tick", 3);
+        // other timers in the same bucket must still be visited
+        schedule("other", 3);
+        schedule("later", 11);
+        List<Long> ticks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            wheel.advance(value -> {
+                expired.add(value);
+                if (value.equals("tick")) {
+                    ticks.add(wheel.getTick());
+                    wheel.schedule(periodic, 3);
+                }
+            });
+        }
+        assertEquals(List.of(3L, 6L, 9L, 12L), ticks);
+        assertTrue(expired.contains("other"));
+        assertTrue(expired.contains("later"));
+    }
+
+    @Test
+    void bulkAdvanceShorterThanARotationMatchesSingleAdvances() {
+        schedule("a", 2);
+        schedule("b", 5);
+        schedule("c", 6);
+        wheel.advance(5, expired::add);
+        assertEquals(5, wheel.getTick());
+        assertEquals(List.of("a", "b"), expired);
+        assertEquals(6, advanceUntil("c", 5));
+    }
+
+    @Test
+    void bulkAdvanceLongerThanARotationExpiresEveryDueTimer() {
+        schedule("a", 3);
+        schedule("b", 17);
+        schedule("c", 40);
+        schedule("d", 41);
+        wheel.advance(40, expired::add);
+        assertEquals(40, wheel.getTick());
+        assertEquals(3, expired.size());
+        assertTrue(expired.containsAll(List.of("a", "b", "c")));
+        assertEquals(1, wheel.size());
+        // the remaining timer still expires on its own tick
+        assertEquals(41, advanceUntil("d", 5));
+    }
+
+    @Test
+    void timerRescheduledDuringBulkAdvanceIsRelativeToTheLastTick() {
+        TimerWheel.Timer<String> timer = schedule("a", 4);
+        wheel.advance(100, value -> wheel.schedule(timer, 3));
+        assertEquals(100, wheel.getTick());
+        assertEquals(3, timer.getRemaining());
+        assertEquals(103, advanceUntil("a", 5));
+    }
+
+    @Test
+    void clearCancelsEveryTimer() {
+        TimerWheel.Timer<String> a = schedule("a", 1);
+        TimerWheel.Timer<String> b = schedule("b", 30);
+        wheel.clear();
+        assertEquals(0, wheel.size());
+        assertFalse(a.isScheduled());
+        assertFalse(b.isScheduled());
+        wheel.advance(50, expired::add);
+        assertTrue(expired.isEmpty());
+    }
+}